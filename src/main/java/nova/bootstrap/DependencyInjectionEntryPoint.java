@@ -4,7 +4,9 @@ import java.util.Optional;
 import java.util.Set;
 
 import nova.core.depmodules.CoreBundle;
+import nova.core.depmodules.ServerCoreBundle;
 import nova.core.game.Game;
+import nova.core.util.StartupTimeline;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Injector;
 import se.jbee.inject.bootstrap.Bootstrap;
@@ -20,9 +22,27 @@ public class DependencyInjectionEntryPoint {
 
 	private Set<Class<? extends Bundle>> bundles = Sets.newHashSet();
 
+	private final StartupTimeline timeline = new StartupTimeline();
+
+	private final boolean serverOnly;
+
 	public DependencyInjectionEntryPoint() {
+		this(false);
+	}
 
-		install(CoreBundle.class);
+	/**
+	 * @param serverOnly True to leave out client-side subsystems such as rendering and GUIs, for dedicated servers.
+	 */
+	public DependencyInjectionEntryPoint(boolean serverOnly) {
+		this.serverOnly = serverOnly;
+		install(serverOnly ? ServerCoreBundle.class : CoreBundle.class);
+	}
+
+	/**
+	 * @return whether client-side subsystems are left out.
+	 */
+	public boolean isServerOnly() {
+		return serverOnly;
 	}
 
 	/**
@@ -32,6 +52,13 @@ public class DependencyInjectionEntryPoint {
 		return injector;
 	}
 
+	/**
+	 * @return the timeline recording how long each step of the startup takes.
+	 */
+	public StartupTimeline getTimeline() {
+		return timeline;
+	}
+
 	/**
 	 * @return current state.
 	 */
@@ -81,9 +108,11 @@ public class DependencyInjectionEntryPoint {
 
 		DIEPBundle.bundles = bundles;
 
-		injector = Optional.of(Bootstrap.injector(DIEPBundle.class));
+		injector = Optional.of(timeline.record("di", "Bootstrap injector", () -> Bootstrap.injector(DIEPBundle.class)));
 		state = State.POSTINIT;
-		return injector.map(injector -> injector.resolve(Dependency.dependency(Game.class))).orElseThrow(IllegalStateException::new);
+		return timeline.record("di", "Resolve game", () ->
+			injector.map(injector -> injector.resolve(Dependency.dependency(Game.class))).orElseThrow(IllegalStateException::new)
+		);
 	}
 
 	private enum State {
@@ -1,5 +1,6 @@
 package nova.core.depmodules;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import nova.core.di.DICoreModule;
 import nova.core.di.LoggerModule;
@@ -13,6 +14,11 @@ import java.util.Set;
 public class CoreBundle extends BootstrapperBundle {
 	private static Set<Class<? extends Bundle>> coreModules = Sets.newHashSet();
 
+	/**
+	 * Modules of client-side subsystems, left out by {@link ServerCoreBundle}.
+	 */
+	private static Set<Class<? extends Bundle>> clientModules = ImmutableSet.of(RenderModule.class, GuiModule.class);
+
 	static {
 		/**
 		 * Managers
@@ -49,6 +55,13 @@ public class CoreBundle extends BootstrapperBundle {
 		return Collections.unmodifiableSet(coreModules);
 	}
 
+	/**
+	 * @return The core modules without the client-side subsystems.
+	 */
+	public static Set<Class<? extends Bundle>> getServerCoreModules() {
+		return Collections.unmodifiableSet(Sets.difference(coreModules, clientModules));
+	}
+
 	private static void add(Class<? extends Bundle> module) {
 		coreModules.add(module.asSubclass(Bundle.class));
 	}
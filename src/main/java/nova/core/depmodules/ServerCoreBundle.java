@@ -0,0 +1,16 @@
+package nova.core.depmodules;
+
+import se.jbee.inject.bootstrap.BootstrapperBundle;
+
+/**
+ * The core modules for dedicated servers, which leaves out client-side subsystems such as rendering and GUIs.
+ * Wrappers do not need to bind those subsystems, as {@link nova.core.game.Game} only resolves them when they are accessed.
+ */
+public class ServerCoreBundle extends BootstrapperBundle {
+
+	@Override
+	protected void bootstrap() {
+		CoreBundle.getServerCoreModules().forEach(this::install);
+	}
+
+}
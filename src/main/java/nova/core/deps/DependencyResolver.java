@@ -0,0 +1,195 @@
+package nova.core.deps;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import nova.core.util.exception.NovaException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads Maven dependencies into a local cache directory, laid out like a Maven repository.
+ *
+ * Artifacts are downloaded concurrently, and each artifact is verified against the SHA-1 checksum published next to it
+ * before it is moved into the cache. Artifacts that are already cached are used without touching the network.
+ * Repositories may be local directories, using file: URLs.
+ */
+public class DependencyResolver {
+
+	/**
+	 * The default number of artifacts downloaded at the same time.
+	 */
+	public static final int DEFAULT_PARALLELISM = 8;
+
+	private final File cacheDir;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, CompletableFuture<File>> downloads = new ConcurrentHashMap<>();
+	private volatile boolean requireChecksums = true;
+
+	/**
+	 * @param cacheDir The directory to cache artifacts in
+	 */
+	public DependencyResolver(File cacheDir) {
+		this(cacheDir, DEFAULT_PARALLELISM);
+	}
+
+	/**
+	 * @param cacheDir The directory to cache artifacts in
+	 * @param parallelism The number of artifacts downloaded at the same time
+	 */
+	public DependencyResolver(File cacheDir, int parallelism) {
+		this.cacheDir = cacheDir;
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "NOVA Dependency Download Thread");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Sets whether artifacts without a published checksum are rejected. They are by default.
+	 * @param requireChecksums False to accept artifacts that have no checksum
+	 */
+	public void setRequireChecksums(boolean requireChecksums) {
+		this.requireChecksums = requireChecksums;
+	}
+
+	/**
+	 * @param dependency The dependency
+	 * @return The file the dependency is cached in
+	 */
+	public File getCacheFile(MavenDependency dependency) {
+		return new File(cacheDir, dependency.getPath());
+	}
+
+	/**
+	 * Downloads a dependency in the background, unless it is cached.
+	 * Requesting the same dependency again while it is downloading returns the same future.
+	 * @param dependency The dependency
+	 * @return A future completing with the cached file
+	 */
+	public CompletableFuture<File> fetch(MavenDependency dependency) {
+		File file = getCacheFile(dependency);
+		if (file.isFile()) {
+			return CompletableFuture.completedFuture(file);
+		}
+
+		CompletableFuture<File> download = downloads.computeIfAbsent(dependency.getPath(), path ->
+			CompletableFuture.supplyAsync(() -> download(dependency, file), executor)
+		);
+		download.whenComplete((result, error) -> downloads.remove(dependency.getPath(), download));
+		return download;
+	}
+
+	/**
+	 * Downloads all dependencies that are not cached, concurrently, and waits for them.
+	 * @param dependencies The dependencies
+	 * @return The cached file of each dependency
+	 * @throws NovaException If any dependency could not be downloaded, after all downloads have finished
+	 */
+	public Map<MavenDependency, File> resolve(Collection<MavenDependency> dependencies) {
+		Map<MavenDependency, CompletableFuture<File>> futures = new LinkedHashMap<>();
+		dependencies.forEach(dependency -> futures.put(dependency, fetch(dependency)));
+
+		Map<MavenDependency, File> files = new LinkedHashMap<>();
+		List<Throwable> failures = new ArrayList<>();
+		futures.forEach((dependency, future) -> {
+			try {
+				files.put(dependency, future.join());
+			} catch (CompletionException e) {
+				failures.add(e.getCause());
+			}
+		});
+
+		if (!failures.isEmpty()) {
+			NovaException exception = new NovaException("Failed to download " + failures.size() + " dependencies", failures.get(0));
+			failures.stream().skip(1).forEach(exception::addSuppressed);
+			throw exception;
+		}
+		return files;
+	}
+
+	private File download(MavenDependency dependency, File file) {
+		URL url = dependency.getDownloadURL();
+		Path temp = null;
+		try {
+			file.getParentFile().mkdirs();
+			// A unique temporary file, so separate resolvers sharing the cache do not write to the same file.
+			temp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".part");
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			try (InputStream in = new DigestInputStream(url.openStream(), digest); OutputStream out = Files.newOutputStream(temp)) {
+				ByteStreams.copy(in, out);
+			}
+
+			String expected = readChecksum(url);
+			if (expected == null) {
+				if (requireChecksums) {
+					throw new NovaException("No checksum published for " + url);
+				}
+			} else if (!expected.equalsIgnoreCase(BaseEncoding.base16().encode(digest.digest()))) {
+				throw new NovaException("Checksum mismatch for " + url);
+			}
+
+			try {
+				Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			return file;
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new NovaException("Failed to download " + url, e);
+		} finally {
+			if (temp != null) {
+				temp.toFile().delete();
+			}
+		}
+	}
+
+	/**
+	 * @return The published SHA-1 checksum of the artifact, or null if there is none.
+	 */
+	private static String readChecksum(URL url) throws IOException {
+		URL checksumURL;
+		try {
+			checksumURL = new URL(url.toString() + ".sha1");
+		} catch (MalformedURLException e) {
+			throw new NovaException(e);
+		}
+
+		byte[] bytes;
+		try (InputStream in = checksumURL.openStream()) {
+			bytes = ByteStreams.toByteArray(in);
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+
+		// Checksum files may contain the file name after the checksum.
+		String[] parts = new String(bytes, StandardCharsets.US_ASCII).trim().split("\\s+");
+		return parts[0].isEmpty() ? null : parts[0];
+	}
+}
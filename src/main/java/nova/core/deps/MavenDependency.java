@@ -24,7 +24,7 @@ public class MavenDependency {
 	                       String version,
 	                       String classifier,
 	                       String ext) {
-		this.repoURL = mavenRepo.isEmpty() ? "http://maven.novaapi.net/" : mavenRepo;
+		this.repoURL = repository(mavenRepo);
 
 		this.groupID = groupId;
 		this.artifactID = artifactId;
@@ -35,7 +35,7 @@ public class MavenDependency {
 	}
 
 	public MavenDependency(Dependency annotation) {
-		this.repoURL = annotation.mavenRepo();
+		this.repoURL = repository(annotation.mavenRepo());
 
 		this.groupID = annotation.groupId();
 		this.artifactID = annotation.artifactId();
@@ -45,8 +45,15 @@ public class MavenDependency {
 		this.ext = annotation.ext();
 	}
 
+	private static String repository(String mavenRepo) {
+		if (mavenRepo.isEmpty()) {
+			return "http://maven.novaapi.net/";
+		}
+		return mavenRepo.endsWith("/") ? mavenRepo : mavenRepo + "/";
+	}
+
 	public String getDir() {
-		return this.groupID.replaceAll(".", "/") + "/" + this.artifactID + "/" + this.version;
+		return this.groupID.replace('.', '/') + "/" + this.artifactID + "/" + this.version;
 	}
 
 	public String getPath() {
@@ -6,7 +6,10 @@ import se.jbee.inject.bind.BinderModule;
 
 public class DICoreModule extends BinderModule {
 
-	
+	public DICoreModule() {
+		super(NovaScopes.MULTIPLE_INSTANCES);
+	}
+
 	@Override
 	protected void declare() {
 
@@ -1,6 +1,6 @@
 package nova.core.entity;
 
-import nova.core.util.ReflectionUtil;
+import nova.core.util.ClassResolver;
 import nova.core.util.Registry;
 
 import java.util.Optional;
@@ -14,7 +14,7 @@ public class EntityManager {
 	}
 
 	public EntityFactory register(Class<? extends Entity> entity) {
-		return register((args) -> ReflectionUtil.newInstance(entity, args));
+		return register(ClassResolver.constructor(entity));
 	}
 
 	/**
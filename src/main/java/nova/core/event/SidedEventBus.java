@@ -1,7 +1,11 @@
 package nova.core.event;
 
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.Set;
 
+import nova.core.entity.component.Player;
+import nova.core.network.InterestManager;
 import nova.core.network.NetworkTarget;
 import nova.core.network.NetworkTarget.Side;
 import nova.core.network.PacketHandler;
@@ -18,11 +22,22 @@ import nova.core.network.PacketHandler;
 public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 
 	private NetworkEventProcessor eventProcessor;
+	private Optional<InterestManager> interest;
 	private boolean checkListenedBeforeSend = true;
 	private HashMap<Class<?>, Side> listenedNetworkEvents = new HashMap<>();
 
 	public SidedEventBus(NetworkEventProcessor eventProcessor) {
 		this.eventProcessor = eventProcessor;
+		this.interest = Optional.empty();
+	}
+
+	/**
+	 * @param eventProcessor Sends events over the network
+	 * @param interest Finds the players near positioned events, which are only sent to those players
+	 */
+	public SidedEventBus(NetworkEventProcessor eventProcessor, InterestManager interest) {
+		this.eventProcessor = eventProcessor;
+		this.interest = Optional.of(interest);
 	}
 
 	private void add(Class<?> clazz, Side side) {
@@ -110,7 +125,15 @@ public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 					send = contains(event.getClass(), currentSide.opposite());
 				}
 				if (send) {
-					eventProcessor.handleEvent(sidedEvent);
+					Optional<Set<Player>> recipients = currentSide.isServer()
+						? interest.flatMap(manager -> manager.getRecipients(sidedEvent))
+						: Optional.empty();
+					if (!recipients.isPresent()) {
+						eventProcessor.handleEvent(sidedEvent);
+					} else if (!recipients.get().isEmpty()) {
+						// Positioned events nobody is near to don't need to be sent.
+						eventProcessor.handleEvent(sidedEvent, recipients.get());
+					}
 				}
 			}
 		} else {
@@ -128,6 +151,21 @@ public class SidedEventBus<T extends Cancelable> extends CancelableEventBus<T> {
 		 * @param event The event
 		 */
 		public void handleEvent(SidedEvent event);
+
+		/**
+		 * Gets called instead of {@link #handleEvent(SidedEvent)} for an event
+		 * that only some players are near to. The event should only be sent to
+		 * those players, for example with
+		 * {@link nova.core.network.NetworkManager#sendPacket(PacketHandler, nova.core.network.Packet, java.util.Collection)
+		 * NetworkManager.sendPacket}. By default, the event is sent like any
+		 * other event.
+		 *
+		 * @param event The event
+		 * @param recipients The players near the event
+		 */
+		public default void handleEvent(SidedEvent event, Set<Player> recipients) {
+			handleEvent(event);
+		}
 	}
 
 	/**
@@ -17,24 +17,33 @@ import nova.core.recipes.crafting.CraftingRecipeManager;
 import nova.core.render.RenderManager;
 import nova.core.util.LanguageManager;
 import nova.core.util.RetentionManager;
+import nova.core.util.exception.NovaException;
 import nova.core.world.WorldManager;
 import nova.internal.tick.UpdateTicker;
 
 import org.slf4j.Logger;
 
+import java.util.function.Supplier;
+
+/**
+ * Provides access to the managers of the game.
+ *
+ * Client-side managers, such as rendering, GUIs and input, are only resolved when they are first accessed,
+ * so dedicated servers using {@link nova.core.depmodules.ServerCoreBundle} never create them.
+ */
 public class Game {
 
 	private static Game instance;
 
 	private final Logger logger;
 
-	private final ClientManager clientManager;
+	private final Supplier<ClientManager> clientManager;
 	private final BlockManager blockManager;
 	private final EntityManager entityManager;
 	private final ItemManager itemManager;
 	private final FluidManager fluidManager;
 	private final WorldManager worldManager;
-	private final RenderManager renderManager;
+	private final Supplier<RenderManager> renderManager;
 	private final RecipeManager recipeManager;
 	private final CraftingRecipeManager craftingRecipeManager;
 	private final ItemDictionary itemDictionary;
@@ -42,7 +51,7 @@ public class Game {
 	private final NetworkManager networkManager;
 	private final RetentionManager retentionManager;
 	private final LanguageManager languageManager;
-	private final InputManager inputManager;
+	private final Supplier<InputManager> inputManager;
 	private final ComponentManager componentManager;
 	private final NativeManager nativeManager;
 
@@ -60,18 +69,18 @@ public class Game {
 	 */
 	private final UpdateTicker.ThreadTicker threadTicker;
 
-	private final GuiComponentFactory guiComponentFactory;
-	private final GuiManager guiFactory;
+	private final Supplier<GuiComponentFactory> guiComponentFactory;
+	private final Supplier<GuiManager> guiFactory;
 
 	private Game(
 			Logger logger,
-			ClientManager clientManager,
+			Supplier<ClientManager> clientManager,
 			BlockManager blockManager,
 			EntityManager entityManager,
 			ItemManager itemManager,
 			FluidManager fluidManager,
 			WorldManager worldManager,
-			RenderManager renderManager,
+			Supplier<RenderManager> renderManager,
 			RecipeManager recipeManager,
 			CraftingRecipeManager craftingRecipeManager,
 			ItemDictionary itemDictionary,
@@ -79,22 +88,22 @@ public class Game {
 			NetworkManager networkManager,
 		RetentionManager retentionManager,
 			LanguageManager languageManager,
-		InputManager inputManager,
+		Supplier<InputManager> inputManager,
 			NativeManager nativeManager,
 			ComponentManager componentManager,
 			UpdateTicker.SynchronizedTicker syncTicker,
 			UpdateTicker.ThreadTicker threadTicker,
-			GuiComponentFactory guiComponentFactory, GuiManager guiFactory) {
+			Supplier<GuiComponentFactory> guiComponentFactory, Supplier<GuiManager> guiFactory) {
 
 		this.logger = logger;
 
-		this.clientManager = clientManager;
+		this.clientManager = lazy("Client manager", clientManager);
 		this.blockManager = blockManager;
 		this.entityManager = entityManager;
 		this.itemManager = itemManager;
 		this.fluidManager = fluidManager;
 		this.worldManager = worldManager;
-		this.renderManager = renderManager;
+		this.renderManager = lazy("Render manager", renderManager);
 		this.recipeManager = recipeManager;
 		this.craftingRecipeManager = craftingRecipeManager;
 		this.itemDictionary = itemDictionary;
@@ -102,19 +111,48 @@ public class Game {
 		this.networkManager = networkManager;
 		this.retentionManager = retentionManager;
 		this.languageManager = languageManager;
-		this.inputManager = inputManager;
+		this.inputManager = lazy("Input manager", inputManager);
 		this.nativeManager = nativeManager;
 		this.componentManager = componentManager;
 
 		this.syncTicker = syncTicker;
 		this.threadTicker = threadTicker;
 
-		this.guiComponentFactory = guiComponentFactory;
-		this.guiFactory = guiFactory;
+		this.guiComponentFactory = lazy("GUI component factory", guiComponentFactory);
+		this.guiFactory = lazy("GUI manager", guiFactory);
 
 		logger.info("Game instance created.");
 	}
 
+	/**
+	 * @param name The name of the manager, for the error thrown if it cannot be resolved
+	 * @param supplier Resolves the manager
+	 * @return A supplier resolving the manager once, when it is first accessed
+	 */
+	private static <T> Supplier<T> lazy(String name, Supplier<T> supplier) {
+		return new Supplier<T>() {
+			private volatile T value;
+
+			@Override
+			public T get() {
+				T result = value;
+				if (result == null) {
+					synchronized (this) {
+						result = value;
+						if (result == null) {
+							try {
+								value = result = supplier.get();
+							} catch (RuntimeException e) {
+								throw new NovaException(name + " is not available. Client-side managers are not available on a dedicated server.", e);
+							}
+						}
+					}
+				}
+				return result;
+			}
+		};
+	}
+
 	public static void inject(Game game) {
 		Game.instance = game;
 	}
@@ -124,7 +162,7 @@ public class Game {
 	}
 
 	public static ClientManager clientManager() {
-		return instance.clientManager;
+		return instance.clientManager.get();
 	}
 
 	public static BlockManager blocks() {
@@ -148,7 +186,7 @@ public class Game {
 	}
 
 	public static RenderManager render() {
-		return instance.renderManager;
+		return instance.renderManager.get();
 	}
 
 	public static RecipeManager recipes() {
@@ -180,7 +218,7 @@ public class Game {
 	}
 
 	public static InputManager input() {
-		return instance.inputManager;
+		return instance.inputManager.get();
 	}
 
 	public static ComponentManager components() {
@@ -206,10 +244,10 @@ public class Game {
 	}
 
 	public static GuiComponentFactory guiComponent() {
-		return instance.guiComponentFactory;
+		return instance.guiComponentFactory.get();
 	}
 
 	public static GuiManager gui() {
-		return instance.guiFactory;
+		return instance.guiFactory.get();
 	}
 }
@@ -54,7 +54,11 @@ public interface Inventory extends Iterable<Item> {
 		Optional<Item> o = get(slot);
 		if (o.isPresent()) {
 			if (stack.sameItemType(o.get())) {
-				return stack.count() - o.get().addCount(stack.count());
+				int added = o.get().addCount(stack.count());
+				if (added != 0) {
+					markChanged();
+				}
+				return stack.count() - added;
 			} else {
 				return stack.count();
 			}
@@ -105,6 +109,7 @@ public interface Inventory extends Iterable<Item> {
 		if (o.isPresent()) {
 			Item item = o.get();
 			item.setCount(item.count() - amount);
+			markChanged();
 			return Optional.of(item.withAmount(amount));
 		}
 		return Optional.empty();
@@ -13,6 +13,9 @@ import java.util.stream.IntStream;
 
 /**
  * This class provides implementation of {@link Inventory}
+ *
+ * This inventory is not {@link nova.core.retention.ChangeTracked}, since {@link #get(int)} returns the items
+ * themselves, which may be changed without the inventory knowing.
  */
 public class InventorySimple implements Inventory, Storable, PacketHandler {
 
@@ -69,7 +72,7 @@ public class InventorySimple implements Inventory, Storable, PacketHandler {
 			return false;
 		} else {
 			items[slot] = item;
-			changed = true;
+			markChanged();
 			return true;
 		}
 	}
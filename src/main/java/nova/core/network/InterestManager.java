@@ -0,0 +1,227 @@
+package nova.core.network;
+
+import nova.core.component.ComponentProvider;
+import nova.core.component.transform.WorldTransform;
+import nova.core.entity.Entity;
+import nova.core.entity.component.Player;
+import nova.core.util.transform.vector.Vector3;
+import nova.core.world.World;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps track of where players are, in order to determine which players need to receive
+ * an update from a {@link PacketHandler}.
+ *
+ * Players are stored in a grid of square columns, so finding the players near a position
+ * only looks at the cells within range instead of every player in the world.
+ * Wrappers are responsible for calling {@link #update(Entity, double)} when a player moves,
+ * and {@link #remove(Player)} when a player leaves.
+ * The manager is thread safe, as events may be published from other threads than the server thread.
+ */
+public class InterestManager {
+
+	/**
+	 * The default width of a grid cell, in blocks.
+	 */
+	public static final int DEFAULT_CELL_SIZE = 16;
+
+	private final int cellSize;
+	private final Map<World, Map<Long, Set<Tracked>>> grid = new HashMap<>();
+	private final Map<Player, Tracked> tracked = new HashMap<>();
+	private double maxViewDistance = 0;
+
+	public InterestManager() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	public InterestManager(int cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		}
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Updates the position and view distance of a player.
+	 * @param entity The entity of the player. Must have a {@link Player} component.
+	 * @param viewDistance The distance in blocks within which the player receives updates.
+	 */
+	public synchronized void update(Entity entity, double viewDistance) {
+		Player player = entity.get(Player.class);
+		World world = entity.world();
+		Vector3<?> position = entity.position();
+		Tracked entry = tracked.get(player);
+		double previousViewDistance = 0;
+
+		if (entry == null) {
+			entry = new Tracked(player);
+			tracked.put(player, entry);
+		} else {
+			unlink(entry);
+			previousViewDistance = entry.viewDistance;
+		}
+
+		entry.world = world;
+		entry.x = position.xd();
+		entry.y = position.yd();
+		entry.z = position.zd();
+		entry.viewDistance = viewDistance;
+		entry.cell = cell(cellCoord(entry.x), cellCoord(entry.z));
+		grid.computeIfAbsent(world, w -> new HashMap<>()).computeIfAbsent(entry.cell, c -> new HashSet<>()).add(entry);
+
+		if (viewDistance >= maxViewDistance) {
+			maxViewDistance = viewDistance;
+		} else if (previousViewDistance == maxViewDistance) {
+			// The player may have had the largest view distance.
+			updateMaxViewDistance();
+		}
+	}
+
+	/**
+	 * Stops tracking a player.
+	 * @param player The player to remove
+	 */
+	public synchronized void remove(Player player) {
+		Tracked entry = tracked.remove(player);
+		if (entry != null) {
+			unlink(entry);
+			updateMaxViewDistance();
+		}
+	}
+
+	private void updateMaxViewDistance() {
+		maxViewDistance = tracked.values().stream().mapToDouble(t -> t.viewDistance).max().orElse(0);
+	}
+
+	/**
+	 * Gets the players interested in updates from a packet handler.
+	 *
+	 * The position of the handler is taken from its {@link WorldTransform}.
+	 * By default, a player is interested if the handler is within the player's view distance.
+	 * Handlers implementing {@link InterestArea} use their own radius instead.
+	 * @param handler The handler to find recipients for
+	 * @return The interested players, or empty if the handler has no known position.
+	 */
+	public Optional<Set<Player>> getRecipients(PacketHandler handler) {
+		if (!(handler instanceof ComponentProvider)) {
+			return Optional.empty();
+		}
+
+		WorldTransform<?> transform = ((ComponentProvider) handler).getOp(WorldTransform.class).orElse(null);
+		if (transform == null || transform.world() == null || !(transform.position() instanceof Vector3)) {
+			return Optional.empty();
+		}
+
+		Vector3<?> position = (Vector3<?>) transform.position();
+		double radius = handler instanceof InterestArea ? ((InterestArea) handler).interestRadius() : -1;
+		return Optional.of(getRecipients(transform.world(), position, radius));
+	}
+
+	/**
+	 * Gets the players interested in a position.
+	 * @param world The world of the position
+	 * @param position The position
+	 * @param radius The radius of interest, or a negative value to use the view distance of each player.
+	 * @return The interested players
+	 */
+	public synchronized Set<Player> getRecipients(World world, Vector3<?> position, double radius) {
+		Set<Player> recipients = new HashSet<>();
+		Map<Long, Set<Tracked>> cells = grid.get(world);
+
+		if (cells == null) {
+			return recipients;
+		}
+
+		double x = position.xd();
+		double y = position.yd();
+		double z = position.zd();
+		double range = radius < 0 ? maxViewDistance : radius;
+
+		int minX = cellCoord(x - range);
+		int maxX = cellCoord(x + range);
+		int minZ = cellCoord(z - range);
+		int maxZ = cellCoord(z + range);
+
+		if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > cells.size()) {
+			// The range covers more cells than are occupied, so just check the occupied ones.
+			cells.values().forEach(cell -> collect(cell, x, y, z, radius, recipients));
+		} else {
+			for (int cx = minX; cx <= maxX; cx++) {
+				for (int cz = minZ; cz <= maxZ; cz++) {
+					Set<Tracked> cell = cells.get(cell(cx, cz));
+					if (cell != null) {
+						collect(cell, x, y, z, radius, recipients);
+					}
+				}
+			}
+		}
+
+		return recipients;
+	}
+
+	private void collect(Set<Tracked> cell, double x, double y, double z, double radius, Set<Player> recipients) {
+		for (Tracked entry : cell) {
+			double distance = radius < 0 ? entry.viewDistance : radius;
+			double dx = entry.x - x;
+			double dy = entry.y - y;
+			double dz = entry.z - z;
+			if (dx * dx + dy * dy + dz * dz <= distance * distance) {
+				recipients.add(entry.player);
+			}
+		}
+	}
+
+	private void unlink(Tracked entry) {
+		Map<Long, Set<Tracked>> cells = grid.get(entry.world);
+		if (cells != null) {
+			Set<Tracked> cell = cells.get(entry.cell);
+			if (cell != null) {
+				cell.remove(entry);
+				if (cell.isEmpty()) {
+					cells.remove(entry.cell);
+				}
+			}
+			if (cells.isEmpty()) {
+				grid.remove(entry.world);
+			}
+		}
+	}
+
+	private int cellCoord(double coord) {
+		return (int) Math.floor(coord / cellSize);
+	}
+
+	private static long cell(int cx, int cz) {
+		return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Implemented by packet handlers that want a custom radius of interest,
+	 * instead of the view distance of each player.
+	 */
+	@FunctionalInterface
+	public static interface InterestArea {
+
+		/**
+		 * @return The distance in blocks within which players receive updates from this handler.
+		 */
+		double interestRadius();
+	}
+
+	private static class Tracked {
+		final Player player;
+		World world;
+		double x, y, z;
+		double viewDistance;
+		long cell;
+
+		Tracked(Player player) {
+			this.player = player;
+		}
+	}
+}
@@ -3,12 +3,41 @@ package nova.core.network;
 import nova.core.entity.component.Player;
 import nova.core.network.NetworkTarget.Side;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * A central network manager.
  * @author Calclavia
  */
 public abstract class NetworkManager {
 
+	private final InterestManager interestManager = new InterestManager();
+	private final SyncScheduler syncScheduler = new SyncScheduler(this);
+	private final NetworkMetrics networkMetrics = new NetworkMetrics();
+
+	/**
+	 * @return The interest manager keeping track of which players need which updates.
+	 */
+	public InterestManager interest() {
+		return interestManager;
+	}
+
+	/**
+	 * @return The scheduler for queued syncs. Wrappers should tick it once every server tick.
+	 */
+	public SyncScheduler scheduler() {
+		return syncScheduler;
+	}
+
+	/**
+	 * @return The traffic statistics of this network manager.
+	 */
+	public NetworkMetrics metrics() {
+		return networkMetrics;
+	}
+
 	/**
 	 * @return A new empty packet
 	 */
@@ -21,6 +50,33 @@ public abstract class NetworkManager {
 	 */
 	public abstract void sendPacket(PacketHandler sender, Packet packet);
 
+	/**
+	 * Whether a NetworkManager class overrides {@link #sendPacket(PacketHandler, Packet, Player)}.
+	 */
+	private static final ClassValue<Boolean> sendsToPlayers = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("sendPacket", PacketHandler.class, Packet.class, Player.class).getDeclaringClass() != NetworkManager.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
+	/**
+	 * Sends an already written packet to a single player.
+	 *
+	 * Wrappers should override this. By default, the packet is sent to everyone with {@link #sendPacket(PacketHandler, Packet)},
+	 * so wrappers written before targeted sends existed keep working, at the cost of sending to more players than needed.
+	 * @param sender The packet handler sending the packet
+	 * @param packet The packet to send
+	 * @param player The player to receive the packet
+	 */
+	public void sendPacket(PacketHandler sender, Packet packet, Player player) {
+		sendPacket(sender, packet);
+	}
+
 	/**
 	 * Syncs a PacketHandler between server and client.
 	 * @param sender {@link PacketHandler}
@@ -29,13 +85,121 @@ public abstract class NetworkManager {
 		sync(0, sender);
 	}
 
+	/**
+	 * Syncs a PacketHandler only to the players near it.
+	 * @param sender {@link PacketHandler}
+	 * @see #syncNearby(int, PacketHandler)
+	 */
+	public final void syncNearby(PacketHandler sender) {
+		syncNearby(0, sender);
+	}
+
 	/**
 	 * Syncs a PacketHandler between server and client, with a specific packet ID
+	 * Implementations should write the packet using {@link #writePacket(int, PacketHandler)},
+	 * and record it with {@link NetworkMetrics#recordSent(PacketHandler, int, int, int)}.
 	 * @param id The packet ID
 	 * @param sender sender {@link nova.core.network.PacketHandler}
 	 */
 	public abstract void sync(int id, PacketHandler sender);
 
+	/**
+	 * Syncs a PacketHandler to a group of players, with a specific packet ID.
+	 * The handler is only written once, and the same encoded packet is sent to every recipient.
+	 * @param id The packet ID
+	 * @param sender sender {@link nova.core.network.PacketHandler}
+	 * @param players The players to receive the packet
+	 */
+	public void sync(int id, PacketHandler sender, Collection<? extends Player> players) {
+		if (players.isEmpty()) {
+			return;
+		}
+
+		Packet packet = writePacket(id, sender);
+		metrics().recordSent(sender, id, packet.size(), players.size());
+		sendPacket(sender, packet, players);
+	}
+
+	/**
+	 * Creates a new packet with the given ID, and lets the handler write to it.
+	 * The time spent writing is recorded in {@link #metrics()}.
+	 * @param id The packet ID
+	 * @param sender The handler writing the packet
+	 * @return The written packet
+	 */
+	public Packet writePacket(int id, PacketHandler sender) {
+		Packet packet = newPacket();
+		packet.setID(id);
+		long start = System.nanoTime();
+		sender.write(packet);
+		metrics().recordWrite(sender, System.nanoTime() - start);
+		return packet;
+	}
+
+	/**
+	 * Lets a handler read a received packet, recording it in {@link #metrics()}.
+	 * Wrappers should use this instead of calling {@link PacketHandler#read(Packet)} directly.
+	 * @param receiver The handler reading the packet
+	 * @param packet The received packet
+	 */
+	public void readPacket(PacketHandler receiver, Packet packet) {
+		long start = System.nanoTime();
+		receiver.read(packet);
+		metrics().recordReceived(receiver, packet.getID(), packet.size(), System.nanoTime() - start);
+	}
+
+	/**
+	 * Syncs a PacketHandler only to the players interested in it, as determined by {@link #interest()}.
+	 * If the handler has no known position, this falls back to {@link #sync(int, PacketHandler)}.
+	 * @param id The packet ID
+	 * @param sender sender {@link nova.core.network.PacketHandler}
+	 */
+	public void syncNearby(int id, PacketHandler sender) {
+		Optional<Set<Player>> recipients = interest().getRecipients(sender);
+		if (recipients.isPresent()) {
+			sync(id, sender, recipients.get());
+		} else {
+			sync(id, sender);
+		}
+	}
+
+	/**
+	 * Queues a PacketHandler to be synced to the players near it, see {@link SyncScheduler}.
+	 * Repeated syncs of the same handler and ID are sent only once.
+	 * If the handler has no known position, it is synced immediately.
+	 * @param id The packet ID
+	 * @param sender sender {@link nova.core.network.PacketHandler}
+	 */
+	public void queueSync(int id, PacketHandler sender) {
+		Optional<Set<Player>> recipients = interest().getRecipients(sender);
+		if (recipients.isPresent()) {
+			scheduler().queue(id, sender, recipients.get());
+		} else {
+			sync(id, sender);
+		}
+	}
+
+	/**
+	 * Sends an already written packet to a group of players.
+	 *
+	 * The packet must not be written again for each player.
+	 * Implementations should share a read-only view of the encoded bytes between all recipients.
+	 * By default, this sends the packet to each player with {@link #sendPacket(PacketHandler, Packet, Player)},
+	 * or once to everyone if that method is not overridden.
+	 * @param sender The packet handler sending the packet
+	 * @param packet The packet to send
+	 * @param players The players to receive the packet
+	 */
+	public void sendPacket(PacketHandler sender, Packet packet, Collection<? extends Player> players) {
+		if (!sendsToPlayers.get(getClass())) {
+			sendPacket(sender, packet);
+			return;
+		}
+		for (Player player : players) {
+			sendPacket(sender, packet, player);
+		}
+	}
+
 	public abstract void sendChat(Player player, String message);
 
 	/**
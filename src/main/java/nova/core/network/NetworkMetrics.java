@@ -0,0 +1,222 @@
+package nova.core.network;
+
+import nova.core.event.SidedEventBus.SidedEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Collects network traffic statistics per {@link PacketHandler} class and packet ID.
+ *
+ * Since {@link SidedEvent SidedEvents} are packet handlers themselves, every event type is tracked separately.
+ * Recording is thread safe, as packets may be received on a different thread than they are sent.
+ */
+public class NetworkMetrics {
+
+	private final Map<Class<?>, HandlerStats> stats = new ConcurrentHashMap<>();
+	private volatile boolean enabled = true;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Records the time it took to write a packet.
+	 * @param handler The handler that wrote the packet
+	 * @param nanos The time taken, in nanoseconds
+	 */
+	public void recordWrite(PacketHandler handler, long nanos) {
+		if (enabled) {
+			get(handler).writeTime.record(nanos);
+		}
+	}
+
+	/**
+	 * Records a packet being sent.
+	 * @param handler The handler that wrote the packet
+	 * @param id The packet ID
+	 * @param bytes The size of the packet, or -1 if unknown, in which case only the packet is counted
+	 * @param recipients The number of players the packet is sent to
+	 */
+	public void recordSent(PacketHandler handler, int id, int bytes, int recipients) {
+		if (enabled) {
+			HandlerStats handlerStats = get(handler);
+			long total = bytes < 0 ? 0 : (long) bytes * recipients;
+			handlerStats.sent.add(recipients, total);
+			handlerStats.sentById.computeIfAbsent(id, i -> new Traffic()).add(recipients, total);
+		}
+	}
+
+	/**
+	 * Records a packet being received and read.
+	 * @param handler The handler that read the packet
+	 * @param id The packet ID
+	 * @param bytes The size of the packet, or -1 if unknown, in which case only the packet is counted
+	 * @param nanos The time it took to read the packet, in nanoseconds
+	 */
+	public void recordReceived(PacketHandler handler, int id, int bytes, long nanos) {
+		if (enabled) {
+			HandlerStats handlerStats = get(handler);
+			long total = Math.max(bytes, 0);
+			handlerStats.received.add(1, total);
+			handlerStats.receivedById.computeIfAbsent(id, i -> new Traffic()).add(1, total);
+			handlerStats.readTime.record(nanos);
+		}
+	}
+
+	private HandlerStats get(PacketHandler handler) {
+		return stats.computeIfAbsent(handler.getClass(), HandlerStats::new);
+	}
+
+	/**
+	 * @param type The handler class
+	 * @return The statistics of the handler class, if it sent or received anything.
+	 */
+	public Optional<HandlerStats> get(Class<?> type) {
+		return Optional.ofNullable(stats.get(type));
+	}
+
+	/**
+	 * @return The statistics of all handler classes.
+	 */
+	public Collection<HandlerStats> all() {
+		return Collections.unmodifiableCollection(stats.values());
+	}
+
+	/**
+	 * @param limit The maximum amount of handlers to return
+	 * @return The handler classes that sent the most bytes, in descending order.
+	 */
+	public List<HandlerStats> topTalkers(int limit) {
+		return stats.values().stream()
+			.sorted(Comparator.comparingLong((HandlerStats s) -> s.sent.bytes()).reversed())
+			.limit(limit)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * @param limit The maximum amount of handlers to include
+	 * @return A human readable report of the handlers that sent the most bytes.
+	 */
+	public String report(int limit) {
+		StringBuilder builder = new StringBuilder("Network top talkers:");
+		for (HandlerStats handlerStats : topTalkers(limit)) {
+			builder.append(String.format("%n  %s%s: sent %d packets (%d bytes), received %d packets (%d bytes), write p50 %d ns, p99 %d ns",
+				handlerStats.type.getName(),
+				SidedEvent.class.isAssignableFrom(handlerStats.type) ? " (event)" : "",
+				handlerStats.sent.packets(),
+				handlerStats.sent.bytes(),
+				handlerStats.received.packets(),
+				handlerStats.received.bytes(),
+				handlerStats.writeTime.percentile(0.5),
+				handlerStats.writeTime.percentile(0.99)));
+			handlerStats.sentById.forEach((id, traffic) ->
+				builder.append(String.format("%n    id %d: sent %d packets (%d bytes)", id, traffic.packets(), traffic.bytes())));
+		}
+		return builder.toString();
+	}
+
+	public void reset() {
+		stats.clear();
+	}
+
+	/**
+	 * Traffic statistics of a single handler class.
+	 */
+	public static class HandlerStats {
+		public final Class<?> type;
+		public final Traffic sent = new Traffic();
+		public final Traffic received = new Traffic();
+		public final Map<Integer, Traffic> sentById = new ConcurrentHashMap<>();
+		public final Map<Integer, Traffic> receivedById = new ConcurrentHashMap<>();
+		public final Histogram writeTime = new Histogram();
+		public final Histogram readTime = new Histogram();
+
+		HandlerStats(Class<?> type) {
+			this.type = type;
+		}
+	}
+
+	/**
+	 * A packet and byte counter.
+	 */
+	public static class Traffic {
+		private final LongAdder packets = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+
+		void add(long packets, long bytes) {
+			this.packets.add(packets);
+			this.bytes.add(bytes);
+		}
+
+		public long packets() {
+			return packets.sum();
+		}
+
+		public long bytes() {
+			return bytes.sum();
+		}
+	}
+
+	/**
+	 * A histogram of durations, with buckets for every power of two nanoseconds.
+	 */
+	public static class Histogram {
+		private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+		void record(long nanos) {
+			buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+		}
+
+		/**
+		 * @return The number of recorded durations.
+		 */
+		public long count() {
+			long count = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				count += buckets.get(i);
+			}
+			return count;
+		}
+
+		/**
+		 * @param fraction The percentile, between 0 and 1
+		 * @return The upper bound of the bucket containing the percentile, in nanoseconds, or 0 if nothing was recorded.
+		 */
+		public long percentile(double fraction) {
+			long count = count();
+			if (count == 0) {
+				return 0;
+			}
+			long target = (long) Math.ceil(count * fraction);
+			long seen = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if (seen >= Math.max(target, 1)) {
+					return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		/**
+		 * @param bucket The bucket index, covering durations from 2^bucket to 2^(bucket + 1) - 1 nanoseconds
+		 * @return The number of durations recorded in the bucket.
+		 */
+		public long bucket(int bucket) {
+			return buckets.get(bucket);
+		}
+	}
+}
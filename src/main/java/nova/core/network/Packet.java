@@ -2,6 +2,7 @@ package nova.core.network;
 
 import nova.core.retention.Data;
 import nova.core.retention.Storable;
+import nova.core.util.ClassResolver;
 import nova.core.util.exception.NovaException;
 
 import java.util.ArrayList;
@@ -17,6 +18,12 @@ import java.util.stream.IntStream;
  */
 public interface Packet {
 
+	/**
+	 * The type written for collections whose elements are not all of the same class.
+	 * Every element is then preceded by its own type.
+	 */
+	short MIXED_TYPE = -1;
+
 	/**
 	 * @return Gets the ID of this packet, used to determine what this packet is about.
 	 */
@@ -28,6 +35,13 @@ public interface Packet {
 	 */
 	Packet setID(int id);
 
+	/**
+	 * @return The number of bytes written to this packet, or -1 if the packet does not know its size.
+	 */
+	default int size() {
+		return -1;
+	}
+
 	/**
 	 * Writes an arbitrary object, automatically finding the relevant class.
 	 * @param data Object to write
@@ -60,6 +74,16 @@ public interface Packet {
 			writeStorable((Storable) data);
 		} else if (data instanceof Collection) {
 			writeCollection((Collection) data);
+		} else if (data instanceof byte[]) {
+			writeByteArray((byte[]) data);
+		} else if (data instanceof int[]) {
+			writeIntArray((int[]) data);
+		} else if (data instanceof long[]) {
+			writeLongArray((long[]) data);
+		} else if (data instanceof float[]) {
+			writeFloatArray((float[]) data);
+		} else if (data instanceof double[]) {
+			writeDoubleArray((double[]) data);
 		} else {
 			throw new IllegalArgumentException("Packet attempt to write an invalid object: " + data);
 		}
@@ -151,6 +175,87 @@ public interface Packet {
 
 	Packet writeString(String value);
 
+	/**
+	 * Writes part of a byte array, without a length prefix.
+	 * By default, this writes one byte at a time. Implementations should override this to copy the bytes at once.
+	 * @param src The bytes to write
+	 * @param offset The first index of the bytes to write
+	 * @param length The number of bytes to write
+	 * @return This packet
+	 */
+	default Packet writeBytes(byte[] src, int offset, int length) {
+		for (int i = offset; i < offset + length; i++) {
+			writeByte(src[i]);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a length prefixed byte array.
+	 * @param array Data to write
+	 * @return This packet
+	 */
+	default Packet writeByteArray(byte[] array) {
+		writeInt(array.length);
+		return writeBytes(array, 0, array.length);
+	}
+
+	/**
+	 * Writes a length prefixed int array.
+	 * Implementations backed by a buffer should override this to copy the array in one operation.
+	 * @param array Data to write
+	 * @return This packet
+	 */
+	default Packet writeIntArray(int[] array) {
+		writeInt(array.length);
+		for (int value : array) {
+			writeInt(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a length prefixed long array.
+	 * Implementations backed by a buffer should override this to copy the array in one operation.
+	 * @param array Data to write
+	 * @return This packet
+	 */
+	default Packet writeLongArray(long[] array) {
+		writeInt(array.length);
+		for (long value : array) {
+			writeLong(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a length prefixed float array.
+	 * Implementations backed by a buffer should override this to copy the array in one operation.
+	 * @param array Data to write
+	 * @return This packet
+	 */
+	default Packet writeFloatArray(float[] array) {
+		writeInt(array.length);
+		for (float value : array) {
+			writeFloat(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a length prefixed double array.
+	 * Implementations backed by a buffer should override this to copy the array in one operation.
+	 * @param array Data to write
+	 * @return This packet
+	 */
+	default Packet writeDoubleArray(double[] array) {
+		writeInt(array.length);
+		for (double value : array) {
+			writeDouble(value);
+		}
+		return this;
+	}
+
 	default Packet writeEnum(Enum data) {
 		writeString(data.getClass().getName());
 		writeString(data.name());
@@ -190,12 +295,36 @@ public interface Packet {
 		return this;
 	}
 
+	/**
+	 * Writes a collection. If all elements are of the same class, the type is only written once.
+	 * @param col Data to write
+	 * @return This packet
+	 */
 	default Packet writeCollection(Collection col) {
 		writeInt(col.size());
-		col.forEach(obj -> {
-			writeShort(getType(obj.getClass()));
-			write(obj);
-		});
+
+		Class<?> elementClass = null;
+		for (Object obj : col) {
+			if (elementClass == null) {
+				elementClass = obj.getClass();
+			} else if (elementClass != obj.getClass()) {
+				elementClass = null;
+				break;
+			}
+		}
+
+		if (elementClass != null) {
+			writeShort(getType(elementClass));
+			for (Object obj : col) {
+				write(obj);
+			}
+		} else {
+			writeShort(MIXED_TYPE);
+			for (Object obj : col) {
+				writeShort(getType(obj.getClass()));
+				write(obj);
+			}
+		}
 		return this;
 	}
 
@@ -281,9 +410,80 @@ public interface Packet {
 
 	String readString();
 
+	/**
+	 * Reads bytes into part of an array, without a length prefix.
+	 * By default, this reads one byte at a time. Implementations should override this to copy the bytes at once.
+	 * @param dst The array to read into
+	 * @param offset The first index to read into
+	 * @param length The number of bytes to read
+	 */
+	default void readBytes(byte[] dst, int offset, int length) {
+		for (int i = offset; i < offset + length; i++) {
+			dst[i] = readByte();
+		}
+	}
+
+	/**
+	 * Reads a length prefixed byte array.
+	 * @return Data read from this packet
+	 */
+	default byte[] readByteArray() {
+		byte[] array = new byte[readInt()];
+		readBytes(array, 0, array.length);
+		return array;
+	}
+
+	/**
+	 * Reads a length prefixed int array.
+	 * @return Data read from this packet
+	 */
+	default int[] readIntArray() {
+		int[] array = new int[readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = readInt();
+		}
+		return array;
+	}
+
+	/**
+	 * Reads a length prefixed long array.
+	 * @return Data read from this packet
+	 */
+	default long[] readLongArray() {
+		long[] array = new long[readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = readLong();
+		}
+		return array;
+	}
+
+	/**
+	 * Reads a length prefixed float array.
+	 * @return Data read from this packet
+	 */
+	default float[] readFloatArray() {
+		float[] array = new float[readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = readFloat();
+		}
+		return array;
+	}
+
+	/**
+	 * Reads a length prefixed double array.
+	 * @return Data read from this packet
+	 */
+	default double[] readDoubleArray() {
+		double[] array = new double[readInt()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = readDouble();
+		}
+		return array;
+	}
+
 	default Enum readEnum() {
 		try {
-			Class<? extends Enum> className = (Class) Class.forName(readString());
+			Class<? extends Enum> className = ClassResolver.forName(readString());
 			return readEnum(className);
 		} catch (Exception e) {
 			throw new NovaException("Failed to read enum.", e);
@@ -318,33 +518,33 @@ public interface Packet {
 	}
 
 	default <T> List<T> readList() {
-		ArrayList arrayList = new ArrayList();
 		int size = readInt();
-
-		IntStream
-			.range(0, size)
-			.forEach(i -> {
-				short type = readShort();
-				T value = (T) read(Data.dataTypes[type]);
-				arrayList.add(value);
-			});
-
-		return arrayList;
+		return readCollection(new ArrayList<>(size), size);
 	}
 
 	default <T> Set<T> readSet() {
-		Set<T> set = new HashSet<>();
 		int size = readInt();
+		return readCollection(new HashSet<>(), size);
+	}
 
-		IntStream
-			.range(0, size)
-			.forEach(i -> {
-				short type = readShort();
-				T value = (T) read(Data.dataTypes[type]);
-				set.add(value);
-			});
+	/**
+	 * Reads the elements of a collection written by {@link #writeCollection(Collection)}.
+	 * @param collection The collection to add the elements to
+	 * @param size The number of elements
+	 * @return The given collection
+	 */
+	default <T, C extends Collection<T>> C readCollection(C collection, int size) {
+		short type = readShort();
+
+		for (int i = 0; i < size; i++) {
+			Class<?> elementType = Data.dataTypes[type == MIXED_TYPE ? readShort() : type];
+			// The element type is only known at runtime.
+			@SuppressWarnings("unchecked")
+			T element = (T) read(elementType);
+			collection.add(element);
+		}
 
-		return set;
+		return collection;
 	}
 
 	default <T> T read(Class<T> clazz) {
@@ -366,6 +566,16 @@ public interface Packet {
 			return (T) Double.valueOf(readDouble());
 		} else if (clazz == String.class) {
 			return (T) readString();
+		} else if (clazz == byte[].class) {
+			return clazz.cast(readByteArray());
+		} else if (clazz == int[].class) {
+			return clazz.cast(readIntArray());
+		} else if (clazz == long[].class) {
+			return clazz.cast(readLongArray());
+		} else if (clazz == float[].class) {
+			return clazz.cast(readFloatArray());
+		} else if (clazz == double[].class) {
+			return clazz.cast(readDoubleArray());
 		}
 		//Special data types that all convert into Data.
 		else if (Enum.class.isAssignableFrom(clazz)) {
@@ -376,6 +586,8 @@ public interface Packet {
 			return (T) readList();
 		} else if (Set.class.isAssignableFrom(clazz)) {
 			return (T) readSet();
+		} else if (Collection.class.isAssignableFrom(clazz)) {
+			return clazz.cast(readList());
 		} else {
 			return (T) readStorable();
 		}
@@ -1,7 +1,9 @@
 package nova.core.network;
 
 import nova.core.component.ComponentProvider;
+import nova.core.util.AnnotatedField;
 import nova.core.util.ReflectionUtil;
+import nova.core.util.exception.NovaException;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -16,17 +18,16 @@ public interface PacketHandler {
 	 * @param packet - data encoded into the packet.
 	 */
 	default void read(Packet packet) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Sync.class, getClass(), (field, annotation) -> {
-			if (Arrays.stream(annotation.ids()).anyMatch(i -> i == packet.getID())) {
+		for (AnnotatedField<Sync> field : ReflectionUtil.annotatedFields(Sync.class, getClass())) {
+			if (Arrays.stream(field.annotation().ids()).anyMatch(i -> i == packet.getID())) {
+				Object value = packet.read(field.field().getType());
 				try {
-					field.setAccessible(true);
-					field.set(this, packet.read(field.getType()));
-					field.setAccessible(false);
-				} catch (IllegalAccessException e) {
+					field.set(this, value);
+				} catch (NovaException e) {
 					e.printStackTrace();
 				}
 			}
-		});
+		}
 
 		if (this instanceof ComponentProvider) {
 			new HashSet<>(((ComponentProvider) this).components())
@@ -41,17 +42,18 @@ public interface PacketHandler {
 	 * @param packet - data encoded into the packet
 	 */
 	default void write(Packet packet) {
-		ReflectionUtil.forEachRecursiveAnnotatedField(Sync.class, getClass(), (field, annotation) -> {
-			if (Arrays.stream(annotation.ids()).anyMatch(i -> i == packet.getID())) {
+		for (AnnotatedField<Sync> field : ReflectionUtil.annotatedFields(Sync.class, getClass())) {
+			if (Arrays.stream(field.annotation().ids()).anyMatch(i -> i == packet.getID())) {
+				Object value;
 				try {
-					field.setAccessible(true);
-					packet.write(field.get(this));
-					field.setAccessible(false);
-				} catch (IllegalAccessException e) {
+					value = field.get(this);
+				} catch (NovaException e) {
 					e.printStackTrace();
+					continue;
 				}
+				packet.write(value);
 			}
-		});
+		}
 
 		if (this instanceof ComponentProvider) {
 			new HashSet<>(((ComponentProvider) this).components())
@@ -8,10 +8,28 @@ import java.lang.annotation.Target;
 /**
  * An annotation applied to fields that can be synchronized between server and
  * client.
+ *
+ * The rate and priority are used by the {@link SyncScheduler}. Since fields are sent together
+ * in one packet per ID, a packet uses the highest priority and the least restrictive rate of its fields.
+ * Give throttled fields their own packet ID.
  * @author Calclavia
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
 public @interface Sync {
+	int PRIORITY_HIGH = 100;
+	int PRIORITY_DEFAULT = 0;
+	int PRIORITY_LOW = -100;
+
 	int[] ids() default { 0 };
+
+	/**
+	 * @return The maximum number of updates per second, or 0 for no limit.
+	 */
+	float rate() default 0;
+
+	/**
+	 * @return The priority of this field. Packets with a higher priority are sent first.
+	 */
+	int priority() default PRIORITY_DEFAULT;
 }
@@ -0,0 +1,210 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.util.ReflectionUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Schedules queued syncs, so that each connection only receives a limited amount of bytes per tick.
+ *
+ * Every tick, pending syncs are sent in order of their {@link Sync#priority() priority}.
+ * Players that ran out of budget keep the sync pending until a later tick.
+ * Syncs that are queued again before being sent are coalesced, and always send the latest state.
+ * A sync is not sent more often than its {@link Sync#rate() rate} allows.
+ */
+public class SyncScheduler {
+
+	/**
+	 * The default amount of bytes each player may receive per tick.
+	 */
+	public static final int DEFAULT_BYTES_PER_TICK = 8192;
+
+	private final NetworkManager network;
+	private final Map<Key, Pending> pending = new LinkedHashMap<>();
+	private final Map<PacketHandler, Map<Integer, Long>> lastSent = new WeakHashMap<>();
+	private final Map<Class<?>, Map<Integer, Limits>> limits = new HashMap<>();
+	private int bytesPerTick = DEFAULT_BYTES_PER_TICK;
+
+	public SyncScheduler(NetworkManager network) {
+		this.network = network;
+	}
+
+	public int getBytesPerTick() {
+		return bytesPerTick;
+	}
+
+	public void setBytesPerTick(int bytesPerTick) {
+		this.bytesPerTick = bytesPerTick;
+	}
+
+	/**
+	 * Queues a sync to be sent on a later tick.
+	 * @param id The packet ID
+	 * @param handler The handler to sync
+	 * @param players The players to receive the packet
+	 */
+	public void queue(int id, PacketHandler handler, Collection<? extends Player> players) {
+		if (players.isEmpty()) {
+			return;
+		}
+		pending.computeIfAbsent(new Key(handler, id), key -> new Pending(key, getLimits(handler.getClass(), id))).players.addAll(players);
+	}
+
+	/**
+	 * @return The number of queued syncs that have not been sent to all their recipients yet.
+	 */
+	public int pendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Sends as many pending syncs as the budget allows.
+	 */
+	public void tick() {
+		tick(System.currentTimeMillis());
+	}
+
+	void tick(long now) {
+		Map<Player, Integer> budget = new HashMap<>();
+		List<Pending> order = new ArrayList<>(pending.values());
+		order.sort(Comparator.comparingInt((Pending p) -> p.limits.priority).reversed());
+
+		for (Pending sync : order) {
+			if (!sync.started && !ready(sync, now)) {
+				continue;
+			}
+
+			// Writing the packet is skipped if it would not fit any recipient, judging by its size when last written.
+			int estimate = sync.limits.lastSize < 0 ? 1 : sync.limits.lastSize;
+			if (sync.players.stream().noneMatch(player -> fits(budget.getOrDefault(player, bytesPerTick), estimate))) {
+				continue;
+			}
+
+			Packet packet = network.writePacket(sync.key.id, sync.key.handler);
+			int size = packet.size();
+			// A packet of unknown size is assumed to use up a whole budget.
+			int cost = size < 0 ? bytesPerTick : size;
+			sync.limits.lastSize = cost;
+
+			List<Player> recipients = new ArrayList<>();
+			for (Player player : sync.players) {
+				int remaining = budget.getOrDefault(player, bytesPerTick);
+				if (fits(remaining, cost)) {
+					recipients.add(player);
+					budget.put(player, remaining - cost);
+				}
+			}
+
+			if (recipients.isEmpty()) {
+				continue;
+			}
+
+			network.metrics().recordSent(sync.key.handler, sync.key.id, size, recipients.size());
+			network.sendPacket(sync.key.handler, packet, recipients);
+			sync.players.removeAll(recipients);
+
+			if (!sync.started) {
+				sync.started = true;
+				lastSent.computeIfAbsent(sync.key.handler, h -> new HashMap<>()).put(sync.key.id, now);
+			}
+
+			if (sync.players.isEmpty()) {
+				pending.remove(sync.key);
+			}
+		}
+	}
+
+	/**
+	 * A player with a full budget always fits, so oversized packets still get through.
+	 */
+	private boolean fits(int remaining, int cost) {
+		return remaining >= cost || remaining == bytesPerTick;
+	}
+
+	private boolean ready(Pending sync, long now) {
+		if (sync.limits.rate <= 0) {
+			return true;
+		}
+		Map<Integer, Long> sent = lastSent.get(sync.key.handler);
+		Long last = sent != null ? sent.get(sync.key.id) : null;
+		return last == null || now - last >= 1000 / sync.limits.rate;
+	}
+
+	private Limits getLimits(Class<?> clazz, int id) {
+		return limits
+			.computeIfAbsent(clazz, c -> new HashMap<>())
+			.computeIfAbsent(id, i -> {
+				Limits result = new Limits();
+				ReflectionUtil.forEachRecursiveAnnotatedField(Sync.class, clazz, (field, annotation) -> {
+					if (Arrays.stream(annotation.ids()).anyMatch(x -> x == id)) {
+						if (!result.found) {
+							result.found = true;
+							result.priority = annotation.priority();
+							result.rate = annotation.rate();
+						} else {
+							result.priority = Math.max(result.priority, annotation.priority());
+							result.rate = result.rate <= 0 || annotation.rate() <= 0 ? 0 : Math.max(result.rate, annotation.rate());
+						}
+					}
+				});
+				return result;
+			});
+	}
+
+	private static class Limits {
+		boolean found;
+		int priority = Sync.PRIORITY_DEFAULT;
+		float rate;
+		/**
+		 * The size of the packet when it was last written, or -1 if it was not written yet.
+		 */
+		int lastSize = -1;
+	}
+
+	/**
+	 * A handler and packet ID. Handlers are compared with equals, the same as the handlers in {@link #lastSent}.
+	 */
+	private static class Key {
+		final PacketHandler handler;
+		final int id;
+
+		Key(PacketHandler handler, int id) {
+			this.handler = handler;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).handler.equals(handler) && ((Key) obj).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(handler, id);
+		}
+	}
+
+	private static class Pending {
+		final Key key;
+		final Limits limits;
+		final Set<Player> players = new HashSet<>();
+		boolean started;
+
+		Pending(Key key, Limits limits) {
+			this.key = key;
+			this.limits = limits;
+		}
+	}
+}
@@ -0,0 +1,442 @@
+package nova.core.retention;
+
+import nova.core.util.ClassResolver;
+import org.msgpack.core.MessageFormat;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+import org.msgpack.core.MessageUnpacker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary {@link DataFormat} based on MessagePack.
+ *
+ * Every value is preceded by its index in {@link Data#dataTypes}, so that the exact Java type is restored on read.
+ * Primitive arrays are written as a single binary block.
+ * A data object is written as its class name (or nil), followed by a map of its entries.
+ * Values are streamed directly to and from the underlying stream or buffer.
+ */
+public class BinaryDataFormat implements DataFormat {
+
+	public static final BinaryDataFormat instance = new BinaryDataFormat();
+
+	static final int BOOLEAN = 0;
+	static final int BYTE = 1;
+	static final int SHORT = 2;
+	static final int INTEGER = 3;
+	static final int LONG = 4;
+	static final int CHARACTER = 5;
+	static final int FLOAT = 6;
+	static final int DOUBLE = 7;
+	static final int STRING = 8;
+	static final int ENUM = 9;
+	static final int DATA = 11;
+	static final int COLLECTION = 12;
+	static final int BYTE_ARRAY = 13;
+	static final int INT_ARRAY = 14;
+	static final int LONG_ARRAY = 15;
+	static final int FLOAT_ARRAY = 16;
+	static final int DOUBLE_ARRAY = 17;
+
+	@Override
+	public String extension() {
+		return "nbin";
+	}
+
+	@Override
+	public void write(Data data, OutputStream out) throws IOException {
+		MessagePacker packer = MessagePack.newDefaultPacker(out);
+		writeData(packer, data);
+		packer.flush();
+	}
+
+	@Override
+	public Data read(InputStream in) throws IOException {
+		return readData(MessagePack.newDefaultUnpacker(in));
+	}
+
+	/**
+	 * Writes data into a buffer, starting at its position.
+	 * @param data The data to write
+	 * @param buffer The buffer to write to
+	 * @throws java.nio.BufferOverflowException If the buffer is too small
+	 */
+	public void write(Data data, ByteBuffer buffer) {
+		try {
+			write(data, new OutputStream() {
+				@Override
+				public void write(int b) {
+					buffer.put((byte) b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					buffer.put(b, off, len);
+				}
+			});
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Reads data from a buffer, starting at its position.
+	 * Heap buffers are read in place, without copying.
+	 * @param buffer The buffer to read from
+	 * @return The data read
+	 * @throws IOException If the buffer does not contain valid data
+	 */
+	public Data read(ByteBuffer buffer) throws IOException {
+		if (buffer.hasArray()) {
+			return readData(MessagePack.newDefaultUnpacker(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()));
+		}
+
+		ByteBuffer source = buffer.duplicate();
+		return read(new InputStream() {
+			@Override
+			public int read() {
+				return source.hasRemaining() ? source.get() & 0xFF : -1;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				if (!source.hasRemaining()) {
+					return -1;
+				}
+				int count = Math.min(len, source.remaining());
+				source.get(b, off, count);
+				return count;
+			}
+		});
+	}
+
+	/**
+	 * Reads data lazily, only decoding a value when it is first accessed.
+	 * The array is not copied, and must not be changed while the data is in use.
+	 * @param bytes The encoded data
+	 * @return The data read
+	 * @throws IOException If the array does not contain valid data
+	 * @see LazyData
+	 */
+	public Data readLazy(byte[] bytes) throws IOException {
+		return readLazy(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Reads data lazily from a buffer, starting at its position.
+	 * The contents of direct buffers are copied first, heap buffers are shared and must not be changed
+	 * while the data is in use.
+	 * @param buffer The buffer to read from
+	 * @return The data read
+	 * @throws IOException If the buffer does not contain valid data
+	 * @see LazyData
+	 */
+	public Data readLazy(ByteBuffer buffer) throws IOException {
+		if (buffer.hasArray()) {
+			return readLazy(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return readLazy(bytes);
+	}
+
+	LazyData readLazy(byte[] bytes, int offset, int length) throws IOException {
+		MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(bytes, offset, length);
+		LazyData data = new LazyData();
+		if (unpacker.getNextFormat() == MessageFormat.NIL) {
+			unpacker.unpackNil();
+		} else {
+			data.className = unpacker.unpackString();
+		}
+
+		int size = unpacker.unpackMapHeader();
+		for (int i = 0; i < size; i++) {
+			String key = unpacker.unpackString();
+			int start = offset + (int) unpacker.getTotalReadBytes();
+			skipValue(unpacker);
+			int end = offset + (int) unpacker.getTotalReadBytes();
+			data.putRaw(key, new LazyData.Encoded(bytes, start, end - start));
+		}
+		return data;
+	}
+
+	/**
+	 * Decodes a single value that was skipped by {@link #readLazy(byte[], int, int)}.
+	 */
+	Object readLazyValue(byte[] bytes, int offset, int length) throws IOException {
+		MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(bytes, offset, length);
+		if (unpacker.getNextFormat() == MessageFormat.NIL) {
+			return null;
+		}
+
+		int type = unpacker.unpackInt();
+		if (type == DATA) {
+			int read = (int) unpacker.getTotalReadBytes();
+			return readLazy(bytes, offset + read, length - read);
+		}
+		return readValue(unpacker, type);
+	}
+
+	/**
+	 * Skips a value written by {@link #writeValue(MessagePacker, Object)}.
+	 * Collections and data contain type tags of their own, so they are skipped element by element.
+	 */
+	private void skipValue(MessageUnpacker unpacker) throws IOException {
+		if (unpacker.getNextFormat() == MessageFormat.NIL) {
+			unpacker.unpackNil();
+			return;
+		}
+
+		int type = unpacker.unpackInt();
+		switch (type) {
+			case ENUM:
+				unpacker.skipValue();
+				unpacker.skipValue();
+				break;
+			case DATA:
+				unpacker.skipValue();
+				int entries = unpacker.unpackMapHeader();
+				for (int i = 0; i < entries; i++) {
+					unpacker.skipValue();
+					skipValue(unpacker);
+				}
+				break;
+			case COLLECTION:
+				int size = unpacker.unpackArrayHeader();
+				for (int i = 0; i < size; i++) {
+					skipValue(unpacker);
+				}
+				break;
+			default:
+				unpacker.skipValue();
+		}
+	}
+
+	void writeData(MessagePacker packer, Data data) throws IOException {
+		if (data.className != null) {
+			packer.packString(data.className);
+		} else {
+			packer.packNil();
+		}
+
+		packer.packMapHeader(data.size());
+		if (data instanceof CompactData) {
+			// Write primitives straight from the table, without boxing them.
+			((CompactData) data).forEachEntry((key, type, bits, object) -> {
+				packer.packString(key);
+				writePrimitive(packer, type, bits, object);
+			});
+			return;
+		}
+		for (Map.Entry<String, Object> entry : data.rawEntrySet()) {
+			packer.packString(entry.getKey());
+			writeValue(packer, entry.getValue());
+		}
+	}
+
+	private void writePrimitive(MessagePacker packer, int type, long bits, Object object) throws IOException {
+		switch (type) {
+			case BOOLEAN:
+				packer.packInt(BOOLEAN).packBoolean(bits != 0);
+				break;
+			case BYTE:
+				packer.packInt(BYTE).packByte((byte) bits);
+				break;
+			case SHORT:
+				packer.packInt(SHORT).packShort((short) bits);
+				break;
+			case INTEGER:
+				packer.packInt(INTEGER).packInt((int) bits);
+				break;
+			case LONG:
+				packer.packInt(LONG).packLong(bits);
+				break;
+			case CHARACTER:
+				packer.packInt(CHARACTER).packInt((char) bits);
+				break;
+			case FLOAT:
+				packer.packInt(FLOAT).packFloat((float) Double.longBitsToDouble(bits));
+				break;
+			case DOUBLE:
+				packer.packInt(DOUBLE).packDouble(Double.longBitsToDouble(bits));
+				break;
+			default:
+				writeValue(packer, object);
+		}
+	}
+
+	void writeValue(MessagePacker packer, Object value) throws IOException {
+		if (value == null) {
+			packer.packNil();
+		} else if (value instanceof LazyData.Encoded) {
+			// Never accessed since it was read, so it can be written back as it is.
+			LazyData.Encoded encoded = (LazyData.Encoded) value;
+			packer.writePayload(encoded.bytes, encoded.offset, encoded.length);
+		} else if (value instanceof Boolean) {
+			packer.packInt(BOOLEAN).packBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			packer.packInt(BYTE).packByte((Byte) value);
+		} else if (value instanceof Short) {
+			packer.packInt(SHORT).packShort((Short) value);
+		} else if (value instanceof Integer) {
+			packer.packInt(INTEGER).packInt((Integer) value);
+		} else if (value instanceof Long) {
+			packer.packInt(LONG).packLong((Long) value);
+		} else if (value instanceof Character) {
+			packer.packInt(CHARACTER).packInt((Character) value);
+		} else if (value instanceof Float) {
+			packer.packInt(FLOAT).packFloat((Float) value);
+		} else if (value instanceof Double) {
+			packer.packInt(DOUBLE).packDouble((Double) value);
+		} else if (value instanceof String) {
+			packer.packInt(STRING).packString((String) value);
+		} else if (value instanceof Enum) {
+			packer.packInt(ENUM).packString(value.getClass().getName()).packString(((Enum) value).name());
+		} else if (value instanceof Data) {
+			packer.packInt(DATA);
+			writeData(packer, (Data) value);
+		} else if (value instanceof Storable) {
+			packer.packInt(DATA);
+			writeData(packer, Data.serialize((Storable) value));
+		} else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			packer.packInt(COLLECTION).packArrayHeader(collection.size());
+			for (Object element : collection) {
+				writeValue(packer, element);
+			}
+		} else if (value instanceof byte[]) {
+			byte[] array = (byte[]) value;
+			packer.packInt(BYTE_ARRAY).packBinaryHeader(array.length).writePayload(array);
+		} else if (value instanceof int[]) {
+			int[] array = (int[]) value;
+			ByteBuffer buffer = ByteBuffer.allocate(array.length * 4);
+			buffer.asIntBuffer().put(array);
+			packer.packInt(INT_ARRAY).packBinaryHeader(buffer.capacity()).writePayload(buffer.array());
+		} else if (value instanceof long[]) {
+			long[] array = (long[]) value;
+			ByteBuffer buffer = ByteBuffer.allocate(array.length * 8);
+			buffer.asLongBuffer().put(array);
+			packer.packInt(LONG_ARRAY).packBinaryHeader(buffer.capacity()).writePayload(buffer.array());
+		} else if (value instanceof float[]) {
+			float[] array = (float[]) value;
+			ByteBuffer buffer = ByteBuffer.allocate(array.length * 4);
+			buffer.asFloatBuffer().put(array);
+			packer.packInt(FLOAT_ARRAY).packBinaryHeader(buffer.capacity()).writePayload(buffer.array());
+		} else if (value instanceof double[]) {
+			double[] array = (double[]) value;
+			ByteBuffer buffer = ByteBuffer.allocate(array.length * 8);
+			buffer.asDoubleBuffer().put(array);
+			packer.packInt(DOUBLE_ARRAY).packBinaryHeader(buffer.capacity()).writePayload(buffer.array());
+		} else {
+			throw new IllegalArgumentException("Cannot write value of type " + value.getClass());
+		}
+	}
+
+	Data readData(MessageUnpacker unpacker) throws IOException {
+		Data data = new Data();
+		if (unpacker.getNextFormat() == MessageFormat.NIL) {
+			unpacker.unpackNil();
+		} else {
+			data.className = unpacker.unpackString();
+		}
+
+		int size = unpacker.unpackMapHeader();
+		for (int i = 0; i < size; i++) {
+			String key = unpacker.unpackString();
+			data.putRaw(key, readValue(unpacker));
+		}
+		return data;
+	}
+
+	Object readValue(MessageUnpacker unpacker) throws IOException {
+		if (unpacker.getNextFormat() == MessageFormat.NIL) {
+			unpacker.unpackNil();
+			return null;
+		}
+
+		return readValue(unpacker, unpacker.unpackInt());
+	}
+
+	Object readValue(MessageUnpacker unpacker, int type) throws IOException {
+		switch (type) {
+			case BOOLEAN:
+				return unpacker.unpackBoolean();
+			case BYTE:
+				return unpacker.unpackByte();
+			case SHORT:
+				return unpacker.unpackShort();
+			case INTEGER:
+				return unpacker.unpackInt();
+			case LONG:
+				return unpacker.unpackLong();
+			case CHARACTER:
+				return (char) unpacker.unpackInt();
+			case FLOAT:
+				return unpacker.unpackFloat();
+			case DOUBLE:
+				return unpacker.unpackDouble();
+			case STRING:
+				return unpacker.unpackString();
+			case ENUM:
+				return readEnum(unpacker.unpackString(), unpacker.unpackString());
+			case DATA:
+				return readData(unpacker);
+			case COLLECTION:
+				int size = unpacker.unpackArrayHeader();
+				List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue(unpacker));
+				}
+				return list;
+			case BYTE_ARRAY:
+				return readBinary(unpacker);
+			case INT_ARRAY: {
+				ByteBuffer buffer = ByteBuffer.wrap(readBinary(unpacker));
+				int[] array = new int[buffer.capacity() / 4];
+				buffer.asIntBuffer().get(array);
+				return array;
+			}
+			case LONG_ARRAY: {
+				ByteBuffer buffer = ByteBuffer.wrap(readBinary(unpacker));
+				long[] array = new long[buffer.capacity() / 8];
+				buffer.asLongBuffer().get(array);
+				return array;
+			}
+			case FLOAT_ARRAY: {
+				ByteBuffer buffer = ByteBuffer.wrap(readBinary(unpacker));
+				float[] array = new float[buffer.capacity() / 4];
+				buffer.asFloatBuffer().get(array);
+				return array;
+			}
+			case DOUBLE_ARRAY: {
+				ByteBuffer buffer = ByteBuffer.wrap(readBinary(unpacker));
+				double[] array = new double[buffer.capacity() / 8];
+				buffer.asDoubleBuffer().get(array);
+				return array;
+			}
+			default:
+				throw new IOException("Unknown data type: " + type);
+		}
+	}
+
+	private static byte[] readBinary(MessageUnpacker unpacker) throws IOException {
+		byte[] bytes = new byte[unpacker.unpackBinaryHeader()];
+		unpacker.readPayload(bytes);
+		return bytes;
+	}
+
+	private static <E extends Enum<E>> E readEnum(String className, String name) throws IOException {
+		try {
+			return Enum.valueOf(ClassResolver.<E>forName(className), name);
+		} catch (ClassNotFoundException | IllegalArgumentException e) {
+			throw new IOException("Unknown enum constant " + className + "." + name, e);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package nova.core.retention;
+
+/**
+ * A storable that keeps track of changes to its stored data.
+ *
+ * Whenever the stored data changes, the change count must increase.
+ * This allows {@link nova.core.util.RetentionManager RetentionManager} to skip
+ * saving objects that have not changed since they were last saved or loaded.
+ */
+public interface ChangeTracked extends Storable {
+
+	/**
+	 * @return A number that increases every time the stored data of this object changes.
+	 */
+	long getChangeCount();
+}
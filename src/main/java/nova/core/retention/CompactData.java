@@ -0,0 +1,754 @@
+package nova.core.retention;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Data} that stores primitives without boxing them.
+ *
+ * Keys are kept in an open addressing table, with parallel arrays for the type, the primitive value and the
+ * object value of each entry. Primitives put through the typed methods such as {@link #putInt(String, int)}
+ * and read through the typed getters such as {@link #getInt(String)} are never boxed,
+ * and no entry objects are allocated. The map methods still work, but box primitives on access.
+ */
+public class CompactData extends Data {
+
+	private static final long serialVersionUID = 3122550199695565211L;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * The type of entries holding an object, rather than a primitive.
+	 */
+	private static final byte OBJECT = -1;
+
+	/**
+	 * Marks a removed entry, so that lookups continue past it.
+	 */
+	private static final String REMOVED = new String("removed");
+
+	private transient String[] keys;
+	private transient byte[] types;
+	private transient long[] primitives;
+	private transient Object[] objects;
+	private transient int size;
+	private transient int removed;
+
+	public CompactData() {
+		this(INITIAL_CAPACITY);
+	}
+
+	public CompactData(Class<?> clazz) {
+		this();
+		className = clazz.getName();
+	}
+
+	/**
+	 * @param expectedSize The number of entries this data is expected to hold
+	 */
+	public CompactData(int expectedSize) {
+		allocate(capacity(expectedSize));
+	}
+
+	private static int capacity(int expectedSize) {
+		return Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(expectedSize * 4 / 3, 1)) << 1);
+	}
+
+	private void allocate(int capacity) {
+		keys = new String[capacity];
+		types = new byte[capacity];
+		primitives = new long[capacity];
+		objects = new Object[capacity];
+	}
+
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return The slot of the key, or -1 if it is not present.
+	 */
+	private int find(Object key) {
+		if (key == null) {
+			return -1;
+		}
+		int mask = keys.length - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			String k = keys[slot];
+			if (k == null) {
+				return -1;
+			}
+			if (k != REMOVED && k.equals(key)) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * @return The slot for the key, claiming a new slot if the key is not present.
+	 */
+	private int claim(String key) {
+		int slot = find(key);
+		if (slot >= 0) {
+			return slot;
+		}
+
+		if ((size + removed + 1) * 4 > keys.length * 3) {
+			// Grow if the table is getting full, otherwise only clear out removed entries.
+			resize(size * 4 >= keys.length ? keys.length * 2 : keys.length);
+		}
+		int mask = keys.length - 1;
+		slot = hash(key) & mask;
+		while (keys[slot] != null && keys[slot] != REMOVED) {
+			slot = (slot + 1) & mask;
+		}
+		if (keys[slot] == REMOVED) {
+			removed--;
+		}
+		keys[slot] = key;
+		types[slot] = OBJECT;
+		primitives[slot] = 0;
+		objects[slot] = null;
+		size++;
+		return slot;
+	}
+
+	private void resize(int capacity) {
+		String[] oldKeys = keys;
+		byte[] oldTypes = types;
+		long[] oldPrimitives = primitives;
+		Object[] oldObjects = objects;
+		allocate(capacity);
+		removed = 0;
+
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			String key = oldKeys[i];
+			if (key != null && key != REMOVED) {
+				int slot = hash(key) & mask;
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				types[slot] = oldTypes[i];
+				primitives[slot] = oldPrimitives[i];
+				objects[slot] = oldObjects[i];
+			}
+		}
+	}
+
+	private Object value(int slot) {
+		long bits = primitives[slot];
+		switch (types[slot]) {
+			case BinaryDataFormat.BOOLEAN:
+				return bits != 0;
+			case BinaryDataFormat.BYTE:
+				return (byte) bits;
+			case BinaryDataFormat.SHORT:
+				return (short) bits;
+			case BinaryDataFormat.INTEGER:
+				return (int) bits;
+			case BinaryDataFormat.LONG:
+				return bits;
+			case BinaryDataFormat.CHARACTER:
+				return (char) bits;
+			case BinaryDataFormat.FLOAT:
+				return (float) Double.longBitsToDouble(bits);
+			case BinaryDataFormat.DOUBLE:
+				return Double.longBitsToDouble(bits);
+			default:
+				return objects[slot];
+		}
+	}
+
+	private void set(String key, int type, long bits, Object object) {
+		int slot = claim(key);
+		types[slot] = (byte) type;
+		primitives[slot] = bits;
+		objects[slot] = object;
+	}
+
+	/**
+	 * Stores a value that was already converted, unboxing primitives.
+	 * @return The previous value
+	 */
+	private Object store(String key, Object value) {
+		int slot = find(key);
+		Object previous = slot < 0 ? null : value(slot);
+		unbox(key, value);
+		return previous;
+	}
+
+	private void unbox(String key, Object value) {
+		if (value instanceof Boolean) {
+			set(key, BinaryDataFormat.BOOLEAN, (Boolean) value ? 1 : 0, null);
+		} else if (value instanceof Byte) {
+			set(key, BinaryDataFormat.BYTE, (Byte) value, null);
+		} else if (value instanceof Short) {
+			set(key, BinaryDataFormat.SHORT, (Short) value, null);
+		} else if (value instanceof Integer) {
+			set(key, BinaryDataFormat.INTEGER, (Integer) value, null);
+		} else if (value instanceof Long) {
+			set(key, BinaryDataFormat.LONG, (Long) value, null);
+		} else if (value instanceof Character) {
+			set(key, BinaryDataFormat.CHARACTER, (Character) value, null);
+		} else if (value instanceof Float) {
+			set(key, BinaryDataFormat.FLOAT, Double.doubleToRawLongBits((Float) value), null);
+		} else if (value instanceof Double) {
+			set(key, BinaryDataFormat.DOUBLE, Double.doubleToRawLongBits((Double) value), null);
+		} else {
+			set(key, OBJECT, 0, value);
+		}
+	}
+
+	private int require(String key) {
+		int slot = find(key);
+		if (slot < 0) {
+			throw new NullPointerException("No value for " + key);
+		}
+		return slot;
+	}
+
+	private long integral(int slot) {
+		switch (types[slot]) {
+			case BinaryDataFormat.BYTE:
+			case BinaryDataFormat.SHORT:
+			case BinaryDataFormat.INTEGER:
+			case BinaryDataFormat.LONG:
+				return primitives[slot];
+			case BinaryDataFormat.FLOAT:
+			case BinaryDataFormat.DOUBLE:
+				return (long) Double.longBitsToDouble(primitives[slot]);
+			default:
+				return ((Number) value(slot)).longValue();
+		}
+	}
+
+	private double decimal(int slot) {
+		switch (types[slot]) {
+			case BinaryDataFormat.BYTE:
+			case BinaryDataFormat.SHORT:
+			case BinaryDataFormat.INTEGER:
+			case BinaryDataFormat.LONG:
+				return primitives[slot];
+			case BinaryDataFormat.FLOAT:
+			case BinaryDataFormat.DOUBLE:
+				return Double.longBitsToDouble(primitives[slot]);
+			default:
+				return ((Number) value(slot)).doubleValue();
+		}
+	}
+
+	@Override
+	public void putBoolean(String key, boolean value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.BOOLEAN, value ? 1 : 0, null);
+	}
+
+	@Override
+	public void putByte(String key, byte value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.BYTE, value, null);
+	}
+
+	@Override
+	public void putShort(String key, short value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.SHORT, value, null);
+	}
+
+	@Override
+	public void putInt(String key, int value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.INTEGER, value, null);
+	}
+
+	@Override
+	public void putLong(String key, long value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.LONG, value, null);
+	}
+
+	@Override
+	public void putChar(String key, char value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.CHARACTER, value, null);
+	}
+
+	@Override
+	public void putFloat(String key, float value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.FLOAT, Double.doubleToRawLongBits(value), null);
+	}
+
+	@Override
+	public void putDouble(String key, double value) {
+		assert key != null && !key.equals("class");
+		set(key, BinaryDataFormat.DOUBLE, Double.doubleToRawLongBits(value), null);
+	}
+
+	@Override
+	public boolean getBoolean(String key) {
+		int slot = require(key);
+		return types[slot] == BinaryDataFormat.BOOLEAN ? primitives[slot] != 0 : (Boolean) value(slot);
+	}
+
+	@Override
+	public byte getByte(String key) {
+		return (byte) integral(require(key));
+	}
+
+	@Override
+	public short getShort(String key) {
+		return (short) integral(require(key));
+	}
+
+	@Override
+	public int getInt(String key) {
+		return (int) integral(require(key));
+	}
+
+	@Override
+	public long getLong(String key) {
+		return integral(require(key));
+	}
+
+	@Override
+	public char getChar(String key) {
+		int slot = require(key);
+		return types[slot] == BinaryDataFormat.CHARACTER ? (char) primitives[slot] : (Character) value(slot);
+	}
+
+	@Override
+	public float getFloat(String key) {
+		return (float) decimal(require(key));
+	}
+
+	@Override
+	public double getDouble(String key) {
+		return decimal(require(key));
+	}
+
+	/**
+	 * Calls the consumer for every entry, without boxing primitives.
+	 */
+	void forEachEntry(EntryConsumer consumer) throws IOException {
+		for (int slot = 0; slot < keys.length; slot++) {
+			String key = keys[slot];
+			if (key != null && key != REMOVED) {
+				consumer.accept(key, types[slot], primitives[slot], objects[slot]);
+			}
+		}
+	}
+
+	interface EntryConsumer {
+		/**
+		 * @param key The key
+		 * @param type The index of the type in {@link Data#dataTypes}, or -1 for objects
+		 * @param bits The primitive value, with floats and doubles stored as double bits
+		 * @param object The object value
+		 */
+		void accept(String key, int type, long bits, Object object) throws IOException;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key) {
+		int slot = find(key);
+		return slot < 0 ? null : (T) value(slot);
+	}
+
+	@Override
+	public Object get(Object key) {
+		int slot = find(key);
+		return slot < 0 ? null : value(slot);
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue) {
+		int slot = find(key);
+		return slot < 0 ? defaultValue : value(slot);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != null && keys[slot] != REMOVED && Objects.equals(value, value(slot))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return store(key, convert(key, value));
+	}
+
+	@Override
+	void putRaw(String key, Object value) {
+		unbox(key, value);
+	}
+
+	@Override
+	public Object putIfAbsent(String key, Object value) {
+		Object current = get(key);
+		if (current != null) {
+			return current;
+		}
+		// Like Data, the class name may be put if absent, but not through put.
+		return store(key, key.equals("class") ? value : convert(key, value));
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int slot = find(key);
+		if (slot < 0) {
+			return null;
+		}
+		Object previous = value(slot);
+		keys[slot] = REMOVED;
+		objects[slot] = null;
+		size--;
+		removed++;
+		return previous;
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		int slot = find(key);
+		if (slot >= 0 && Objects.equals(value(slot), value)) {
+			remove(key);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean replace(String key, Object oldValue, Object newValue) {
+		int slot = find(key);
+		if (slot >= 0 && Objects.equals(value(slot), oldValue)) {
+			put(key, newValue);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Object replace(String key, Object value) {
+		return containsKey(key) ? put(key, value) : null;
+	}
+
+	@Override
+	public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+		Object current = get(key);
+		if (current == null) {
+			current = mappingFunction.apply(key);
+			if (current != null) {
+				put(key, current);
+			}
+		}
+		return current;
+	}
+
+	@Override
+	public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		Object current = get(key);
+		if (current == null) {
+			return null;
+		}
+		Object value = remappingFunction.apply(key, current);
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		Object value = remappingFunction.apply(key, get(key));
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	@Override
+	public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		Object current = get(key);
+		Object merged = current == null ? value : remappingFunction.apply(current, value);
+		if (merged == null) {
+			remove(key);
+		} else {
+			put(key, merged);
+		}
+		return merged;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			String key = keys[slot];
+			if (key != null && key != REMOVED) {
+				action.accept(key, value(slot));
+			}
+		}
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			String key = keys[slot];
+			if (key != null && key != REMOVED) {
+				unbox(key, convert(key, function.apply(key, value(slot))));
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(objects, null);
+		size = 0;
+		removed = 0;
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return new AbstractSet<String>() {
+			@Override
+			public Iterator<String> iterator() {
+				return new SlotIterator<String>() {
+					@Override
+					String element(int slot) {
+						return keys[slot];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return CompactData.this.remove(o) != null;
+			}
+		};
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return new AbstractCollection<Object>() {
+			@Override
+			public Iterator<Object> iterator() {
+				return new SlotIterator<Object>() {
+					@Override
+					Object element(int slot) {
+						return value(slot);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return new AbstractSet<Map.Entry<String, Object>>() {
+			@Override
+			public Iterator<Map.Entry<String, Object>> iterator() {
+				return new SlotIterator<Map.Entry<String, Object>>() {
+					@Override
+					Map.Entry<String, Object> element(int slot) {
+						return new Entry(keys[slot], value(slot));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	Set<Map.Entry<String, Object>> rawEntrySet() {
+		return entrySet();
+	}
+
+	@Override
+	public Object clone() {
+		CompactData copy = new CompactData(INITIAL_CAPACITY);
+		copy.className = className;
+		copy.keys = keys.clone();
+		copy.types = types.clone();
+		copy.primitives = primitives.clone();
+		copy.objects = objects.clone();
+		copy.size = size;
+		copy.removed = removed;
+		return copy;
+	}
+
+	/**
+	 * Writes the entries, as the table is transient. Removed slots are not written.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int slot = 0; slot < keys.length; slot++) {
+			String key = keys[slot];
+			if (key != null && key != REMOVED) {
+				out.writeObject(key);
+				out.writeByte(types[slot]);
+				out.writeLong(primitives[slot]);
+				out.writeObject(objects[slot]);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int count = in.readInt();
+		allocate(capacity(count));
+		for (int i = 0; i < count; i++) {
+			String key = (String) in.readObject();
+			byte type = in.readByte();
+			long bits = in.readLong();
+			set(key, type, bits, in.readObject());
+		}
+	}
+
+	/**
+	 * Iterates over the used slots. Removing an entry only marks its slot as removed,
+	 * so the remaining entries never move while iterating.
+	 */
+	private abstract class SlotIterator<E> implements Iterator<E> {
+		private int next = advance(0);
+		private int current = -1;
+
+		private int advance(int slot) {
+			while (slot < keys.length && (keys[slot] == null || keys[slot] == REMOVED)) {
+				slot++;
+			}
+			return slot;
+		}
+
+		abstract E element(int slot);
+
+		@Override
+		public boolean hasNext() {
+			return next < keys.length;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			current = next;
+			next = advance(next + 1);
+			return element(current);
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0 || keys[current] == null || keys[current] == REMOVED) {
+				throw new IllegalStateException();
+			}
+			CompactData.this.remove(keys[current]);
+			current = -1;
+		}
+	}
+
+	private class Entry implements Map.Entry<String, Object> {
+		private final String key;
+		private Object value;
+
+		Entry(String key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			Object previous = this.value;
+			put(key, value);
+			this.value = get(key);
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+			return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+}
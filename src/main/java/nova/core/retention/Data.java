@@ -1,11 +1,13 @@
 package nova.core.retention;
 
+import nova.core.util.ClassResolver;
 import nova.core.util.exception.NovaException;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The data class is capable of storing named data.
@@ -24,9 +26,11 @@ import java.util.Map;
  * - Enumerator
  * - Storable (Converted into Data)
  * - Data
+ * - Collection (Of any of the above)
+ *
+ * - byte[], int[], long[], float[] and double[]
  * @author Calclavia
  */
-//TODO: Add collection and array support
 public class Data extends HashMap<String, Object> {
 
 	public static Class[] dataTypes = {
@@ -43,7 +47,13 @@ public class Data extends HashMap<String, Object> {
 		Enum.class,
 		Storable.class,
 		Data.class,
-		Collection.class };
+		Collection.class,
+		//Primitive arrays, stored as a single block.
+		byte[].class,
+		int[].class,
+		long[].class,
+		float[].class,
+		double[].class };
 
 	public String className;
 
@@ -58,14 +68,15 @@ public class Data extends HashMap<String, Object> {
 	/**
 	 * Saves an object, serializing its data.
 	 * This map can be reloaded and its class with be reconstructed.
+	 * The data is a {@link CompactData}, so primitive fields are stored without boxing.
 	 * @param obj The object to store.
 	 * @return The data of the object with
 	 */
 	public static Data serialize(Storable obj) {
-		Data data = new Data(obj.getClass());
+		Data data = new CompactData(obj.getClass());
 		obj.save(data);
+		Migrations.stamp(obj.getClass(), data);
 		data.putIfAbsent("class", obj.getClass().getName());
-		obj.save(data);
 		return data;
 	}
 
@@ -77,7 +88,7 @@ public class Data extends HashMap<String, Object> {
 	 */
 	public static Object unserialize(Data data) {
 		try {
-			Class clazz = (Class) Class.forName((String) data.get("class"));
+			Class clazz = ClassResolver.forName((String) data.get("class"));
 			if (Enum.class.isAssignableFrom(clazz)) {
 				return Enum.valueOf((Class<Enum>) clazz, data.get("value"));
 			} else {
@@ -97,7 +108,7 @@ public class Data extends HashMap<String, Object> {
 	 */
 	public static <T extends Storable> T unserialize(Class<T> clazz, Data data) {
 		try {
-			T storableObj = clazz.newInstance();
+			T storableObj = ClassResolver.newInstance(clazz);
 			storableObj.load(data);
 			return storableObj;
 		} catch (Exception e) {
@@ -117,6 +128,13 @@ public class Data extends HashMap<String, Object> {
 
 	@Override
 	public Object put(String key, Object value) {
+		return super.put(key, convert(key, value));
+	}
+
+	/**
+	 * Checks that a value can be stored, and converts enums and storables into data.
+	 */
+	static Object convert(String key, Object value) {
 		assert key != null && value != null;
 		assert !key.equals("class");
 		final Object check = value;
@@ -126,13 +144,58 @@ public class Data extends HashMap<String, Object> {
 			Data enumData = new Data();
 			enumData.className = value.getClass().getName();
 			enumData.put("value", ((Enum) value).name());
-			value = enumData;
+			return enumData;
 		} else if (value instanceof Storable) {
-			Data storableData = serialize((Storable) value);
-			value = storableData;
+			return serialize((Storable) value);
 		}
+		return value;
+	}
+
+	public void putBoolean(String key, boolean value) {
+		put(key, value);
+	}
+
+	public void putByte(String key, byte value) {
+		put(key, value);
+	}
+
+	public void putShort(String key, short value) {
+		put(key, value);
+	}
+
+	public void putInt(String key, int value) {
+		put(key, value);
+	}
 
-		return super.put(key, value);
+	public void putLong(String key, long value) {
+		put(key, value);
+	}
+
+	public void putChar(String key, char value) {
+		put(key, value);
+	}
+
+	public void putFloat(String key, float value) {
+		put(key, value);
+	}
+
+	public void putDouble(String key, double value) {
+		put(key, value);
+	}
+
+	/**
+	 * Puts a value that was already converted, such as a value read from a file.
+	 * Unlike {@link #put(String, Object)}, this allows the "class" key.
+	 */
+	void putRaw(String key, Object value) {
+		super.put(key, value);
+	}
+
+	/**
+	 * @return The entries as they are stored, without decoding values that are decoded on access.
+	 */
+	Set<Map.Entry<String, Object>> rawEntrySet() {
+		return super.entrySet();
 	}
 
 	/**
@@ -142,10 +205,66 @@ public class Data extends HashMap<String, Object> {
 		return (T) super.get(key);
 	}
 
+	/**
+	 * Gets a boolean. The key must exist.
+	 */
+	public boolean getBoolean(String key) {
+		return this.<Boolean>get(key);
+	}
+
+	/**
+	 * Gets a number as a byte. The key must exist.
+	 */
+	public byte getByte(String key) {
+		return this.<Number>get(key).byteValue();
+	}
+
+	/**
+	 * Gets a number as a short. The key must exist.
+	 */
+	public short getShort(String key) {
+		return this.<Number>get(key).shortValue();
+	}
+
+	/**
+	 * Gets a number as an int. The key must exist.
+	 */
+	public int getInt(String key) {
+		return this.<Number>get(key).intValue();
+	}
+
+	/**
+	 * Gets a number as a long. The key must exist.
+	 */
+	public long getLong(String key) {
+		return this.<Number>get(key).longValue();
+	}
+
+	/**
+	 * Gets a character. The key must exist.
+	 */
+	public char getChar(String key) {
+		return this.<Character>get(key);
+	}
+
+	/**
+	 * Gets a number as a float. The key must exist.
+	 */
+	public float getFloat(String key) {
+		return this.<Number>get(key).floatValue();
+	}
+
+	/**
+	 * Gets a number as a double. The key must exist.
+	 */
+	public double getDouble(String key) {
+		return this.<Number>get(key).doubleValue();
+	}
+
 	public <T extends Enum<T>> T getEnum(String key) {
 		Data enumData = get(key);
 		try {
-			Class<T> enumClass = (Class) Class.forName(enumData.className);
+			Class<T> enumClass = ClassResolver.forName(enumData.className);
 			return Enum.valueOf(enumClass, enumData.get("value"));
 		} catch (Exception e) {
 			throw new NovaException(e);
@@ -155,8 +274,8 @@ public class Data extends HashMap<String, Object> {
 	public <T extends Storable> T getStorable(String key) {
 		Data storableData = get(key);
 		try {
-			Class<T> storableClass = (Class) Class.forName(storableData.className);
-			T obj = storableClass.newInstance();
+			Class<T> storableClass = ClassResolver.forName(storableData.className);
+			T obj = ClassResolver.newInstance(storableClass);
 			obj.load(storableData);
 			return obj;
 		} catch (Exception e) {
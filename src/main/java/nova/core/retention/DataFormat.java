@@ -0,0 +1,58 @@
+package nova.core.retention;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A file format that {@link Data} can be written to and read from.
+ * @see BinaryDataFormat
+ */
+public interface DataFormat {
+
+	/**
+	 * @return The file extension used for files in this format, without a leading dot.
+	 */
+	String extension();
+
+	/**
+	 * Writes data to a stream. The stream is not closed.
+	 * @param data The data to write
+	 * @param out The stream to write to
+	 * @throws IOException If the stream could not be written to
+	 */
+	void write(Data data, OutputStream out) throws IOException;
+
+	/**
+	 * Reads data from a stream. The stream is not closed.
+	 * @param in The stream to read from
+	 * @return The data read
+	 * @throws IOException If the stream could not be read, or does not contain valid data
+	 */
+	Data read(InputStream in) throws IOException;
+
+	/**
+	 * @param data The data to encode
+	 * @return The encoded data
+	 */
+	default byte[] encode(Data data) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			write(data, out);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param bytes The encoded data
+	 * @return The decoded data
+	 * @throws IOException If the bytes do not contain valid data
+	 */
+	default Data decode(byte[] bytes) throws IOException {
+		return read(new ByteArrayInputStream(bytes));
+	}
+}
@@ -0,0 +1,284 @@
+package nova.core.retention;
+
+import nova.core.util.exception.NovaException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * A keyed store for data that changes often, such as player statistics or machine counters.
+ *
+ * Instead of rewriting the whole file on every change, each change is appended to a log file next to the snapshot file.
+ * Once the log grows too large, the current state is written to the snapshot file and the log is cleared.
+ * When the journal is opened, the log is replayed on top of the snapshot.
+ *
+ * Changes are encoded on the calling thread, and written on a background thread,
+ * so changing a value never waits for the disk. Each log record has a checksum, so a record that was only
+ * partially written when the game crashed is discarded on the next load.
+ */
+public class Journal implements Closeable {
+
+	/**
+	 * The default size of the log, in bytes, after which the state is compacted into the snapshot.
+	 */
+	public static final long DEFAULT_COMPACT_BYTES = 1 << 20;
+
+	private static final int RECORD_HEADER_SIZE = 8;
+
+	private final File snapshotFile;
+	private final File logFile;
+	private final long compactBytes;
+	private final ThreadPoolExecutor executor;
+	private final Data state = new Data();
+	private final FileChannel log;
+	private long logSize;
+	private volatile IOException failure;
+
+	/**
+	 * Opens a journal, replaying its log on top of its snapshot.
+	 * @param snapshotFile The file holding the full state, the log is kept in the same directory
+	 */
+	public Journal(File snapshotFile) {
+		this(snapshotFile, DEFAULT_COMPACT_BYTES);
+	}
+
+	/**
+	 * Opens a journal, replaying its log on top of its snapshot.
+	 * @param snapshotFile The file holding the full state, the log is kept in the same directory
+	 * @param compactBytes The size of the log, in bytes, after which the state is compacted into the snapshot
+	 */
+	public Journal(File snapshotFile, long compactBytes) {
+		this.snapshotFile = snapshotFile;
+		this.logFile = new File(snapshotFile.getPath() + ".log");
+		this.compactBytes = compactBytes;
+
+		try {
+			snapshotFile.getAbsoluteFile().getParentFile().mkdirs();
+			if (snapshotFile.exists()) {
+				try (InputStream in = new FileInputStream(snapshotFile)) {
+					BinaryDataFormat.instance.read(in).forEach(state::putRaw);
+				}
+			}
+			log = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			replay();
+		} catch (IOException e) {
+			throw new NovaException("Failed to open journal " + snapshotFile, e);
+		}
+
+		// Like the save thread, this is not a daemon thread, so pending changes are written before the game exits.
+		// It stops when idle, so it never keeps the game from exiting once everything is written.
+		this.executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "NOVA Journal Thread"));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Applies all complete records in the log, and cuts off anything after the last complete record.
+	 */
+	private void replay() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+		long position = 0;
+		long size = log.size();
+
+		while (position + RECORD_HEADER_SIZE <= size) {
+			header.clear();
+			log.read(header, position);
+			int length = header.getInt(0);
+			int checksum = header.getInt(4);
+			if (length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+				break;
+			}
+
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			log.read(payload, position + RECORD_HEADER_SIZE);
+			if (checksum(payload.array()) != checksum) {
+				break;
+			}
+			apply(BinaryDataFormat.instance.decode(payload.array()));
+			position += RECORD_HEADER_SIZE + length;
+		}
+
+		if (position < size) {
+			log.truncate(position);
+		}
+		log.position(position);
+		logSize = position;
+	}
+
+	private void apply(Data record) {
+		Data set = record.get("set");
+		if (set != null) {
+			set.forEach(state::putRaw);
+		}
+		Collection<String> removed = record.get("remove");
+		if (removed != null) {
+			removed.forEach(state::remove);
+		}
+	}
+
+	private static int checksum(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * @param key The key
+	 * @return The current value of the key. It must not be changed, use {@link #put(String, Object)} instead.
+	 */
+	public synchronized <T> T get(String key) {
+		return state.get(key);
+	}
+
+	/**
+	 * @return A copy of the current state.
+	 */
+	public synchronized Data getState() {
+		return SavePipeline.snapshot(state);
+	}
+
+	/**
+	 * Changes the value of a key.
+	 * @param key The key
+	 * @param value The new value, which is copied so it may keep changing afterwards
+	 */
+	public void put(String key, Object value) {
+		Data delta = new Data();
+		delta.put(key, value);
+		putAll(delta);
+	}
+
+	/**
+	 * Changes the values of several keys at once.
+	 * @param delta The keys to change and their new values
+	 */
+	public void putAll(Data delta) {
+		Data set = SavePipeline.snapshot(delta);
+		Data record = new Data();
+		record.put("set", set);
+		append(record);
+	}
+
+	/**
+	 * Removes keys.
+	 * @param keys The keys to remove
+	 */
+	public void remove(String... keys) {
+		List<String> removed = new ArrayList<>(keys.length);
+		for (String key : keys) {
+			removed.add(key);
+		}
+		Data record = new Data();
+		record.put("remove", removed);
+		append(record);
+	}
+
+	private synchronized void append(Data record) {
+		apply(record);
+
+		byte[] payload = BinaryDataFormat.instance.encode(record);
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+		buffer.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+		logSize += buffer.remaining();
+		executor.execute(() -> write(buffer));
+
+		if (logSize >= compactBytes) {
+			compact();
+		}
+	}
+
+	private void write(ByteBuffer buffer) {
+		try {
+			while (buffer.hasRemaining()) {
+				log.write(buffer);
+			}
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	private void fail(IOException e) {
+		e.printStackTrace();
+		failure = e;
+	}
+
+	/**
+	 * Writes the current state to the snapshot file in the background, and clears the log once it is written.
+	 * This happens automatically once the log grows too large.
+	 * @return A future that completes once the snapshot is written.
+	 */
+	public synchronized CompletableFuture<Void> compact() {
+		Data snapshot = SavePipeline.snapshot(state);
+		logSize = 0;
+		return CompletableFuture.runAsync(() -> writeSnapshot(snapshot), executor);
+	}
+
+	private void writeSnapshot(Data snapshot) {
+		File temp = new File(snapshotFile.getPath() + ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+				BinaryDataFormat.instance.write(snapshot, out);
+			}
+			try {
+				Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			// Everything in the log is part of the snapshot now. If the game crashes before this,
+			// replaying the log again on top of the new snapshot leads to the same state.
+			log.truncate(0);
+			log.position(0);
+		} catch (IOException e) {
+			fail(e);
+			throw new NovaException("Failed to compact journal " + snapshotFile, e);
+		}
+	}
+
+	/**
+	 * @return A future that completes once all changes so far are written and forced to disk.
+	 */
+	public CompletableFuture<Void> flush() {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				log.force(false);
+			} catch (IOException e) {
+				fail(e);
+			}
+			if (failure != null) {
+				throw new NovaException("Failed to write journal " + snapshotFile, failure);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Writes all pending changes and closes the log. The journal must not be used afterwards.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush().join();
+		} finally {
+			executor.shutdown();
+			log.close();
+		}
+	}
+}
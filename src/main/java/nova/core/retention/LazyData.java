@@ -0,0 +1,207 @@
+package nova.core.retention;
+
+import nova.core.util.exception.NovaException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link Data} read by {@link BinaryDataFormat#readLazy(byte[])}, that only decodes a value when it is first accessed.
+ *
+ * Nested data is decoded lazily as well, so loading only pays for the keys that are actually read.
+ * Values that were never accessed are written back by {@link BinaryDataFormat} exactly as they were read,
+ * without decoding and encoding them again.
+ *
+ * The encoded bytes are shared, not copied, so they must not be changed while this data is in use.
+ */
+public class LazyData extends Data {
+
+	private static final long serialVersionUID = -9038969045363512286L;
+
+	LazyData() {
+
+	}
+
+	/**
+	 * Decodes a stored value, and replaces it so it is only decoded once.
+	 */
+	private Object access(Object key, Object value) {
+		if (value instanceof Encoded) {
+			value = ((Encoded) value).decode();
+			putRaw((String) key, value);
+		}
+		return value;
+	}
+
+	private void access(Object key) {
+		access(key, super.get(key));
+	}
+
+	/**
+	 * Decodes all values that were not accessed yet.
+	 */
+	private void accessAll() {
+		for (Map.Entry<String, Object> entry : rawEntrySet()) {
+			if (entry.getValue() instanceof Encoded) {
+				entry.setValue(((Encoded) entry.getValue()).decode());
+			}
+		}
+	}
+
+	/**
+	 * Encoded values cannot be serialized, so everything is decoded first.
+	 */
+	private Object writeReplace() {
+		accessAll();
+		return this;
+	}
+
+	/**
+	 * @return True if the value of the key has not been decoded.
+	 */
+	public boolean isEncoded(String key) {
+		return super.get(key) instanceof Encoded;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key) {
+		return (T) access(key, super.get(key));
+	}
+
+	@Override
+	public Object get(Object key) {
+		return access(key, super.get(key));
+	}
+
+	@Override
+	public Object getOrDefault(Object key, Object defaultValue) {
+		return containsKey(key) ? get(key) : defaultValue;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		return Encoded.decode(super.put(key, value));
+	}
+
+	@Override
+	public Object putIfAbsent(String key, Object value) {
+		Object current = get(key);
+		return current != null ? current : put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		return Encoded.decode(super.remove(key));
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		access(key);
+		return super.remove(key, value);
+	}
+
+	@Override
+	public boolean replace(String key, Object oldValue, Object newValue) {
+		access(key);
+		return super.replace(key, oldValue, newValue);
+	}
+
+	@Override
+	public Object replace(String key, Object value) {
+		access(key);
+		return super.replace(key, value);
+	}
+
+	@Override
+	public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+		access(key);
+		return super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		access(key);
+		return super.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+		access(key);
+		return super.compute(key, remappingFunction);
+	}
+
+	@Override
+	public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+		access(key);
+		return super.merge(key, value, remappingFunction);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		accessAll();
+		return super.containsValue(value);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		accessAll();
+		super.forEach(action);
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+		accessAll();
+		super.replaceAll(function);
+	}
+
+	@Override
+	public Collection<Object> values() {
+		accessAll();
+		return super.values();
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		accessAll();
+		return super.entrySet();
+	}
+
+	@Override
+	public Object clone() {
+		accessAll();
+		return super.clone();
+	}
+
+	/**
+	 * A value that has not been decoded yet.
+	 */
+	static final class Encoded {
+		final byte[] bytes;
+		final int offset;
+		final int length;
+
+		Encoded(byte[] bytes, int offset, int length) {
+			this.bytes = bytes;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		static Object decode(Object value) {
+			return value instanceof Encoded ? ((Encoded) value).decode() : value;
+		}
+
+		Object decode() {
+			try {
+				return BinaryDataFormat.instance.readLazyValue(bytes, offset, length);
+			} catch (IOException e) {
+				throw new NovaException("Failed to decode lazily read data", e);
+			}
+		}
+	}
+}
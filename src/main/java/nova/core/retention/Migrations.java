@@ -0,0 +1,100 @@
+package nova.core.retention;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Upgrades stored data to the current {@link StoredVersion} of its class.
+ *
+ * Migrations run lazily, when an object is loaded, rather than converting a whole world up front.
+ * The default {@link Storable#save(Data)} stores the version with the data, and the default {@link Storable#load(Data)}
+ * migrates the data before loading it, so once the object is saved again, its data is not migrated again.
+ * {@link Data#serialize(Storable)} also stores the version for classes that override save.
+ * Classes that override save or load without calling the defaults should call {@link #stamp(Class, Data)}
+ * and {@link #migrate(Class, Data)} themselves.
+ */
+public final class Migrations {
+
+	private static final Map<Class<?>, Map<Integer, Consumer<Data>>> migrations = new ConcurrentHashMap<>();
+
+	private static final ClassValue<Integer> versions = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			StoredVersion version = type.getAnnotation(StoredVersion.class);
+			return version != null ? version.value() : 0;
+		}
+	};
+
+	private Migrations() {
+
+	}
+
+	/**
+	 * Registers a migration of stored data from one version to the next.
+	 * @param type The storable class
+	 * @param fromVersion The version the data is migrated from, to fromVersion + 1
+	 * @param migration A function that changes the data to the new layout
+	 */
+	public static void register(Class<? extends Storable> type, int fromVersion, Consumer<Data> migration) {
+		migrations.computeIfAbsent(type, t -> new ConcurrentHashMap<>()).put(fromVersion, migration);
+	}
+
+	/**
+	 * @param type The storable class
+	 * @return The current version of the class, as declared by {@link StoredVersion}.
+	 */
+	public static int version(Class<?> type) {
+		return versions.get(type);
+	}
+
+	/**
+	 * @param type The storable class
+	 * @return The key the version of the class is stored under.
+	 */
+	static String versionKey(Class<?> type) {
+		return "version:" + type.getName();
+	}
+
+	/**
+	 * Records the current version of a class in its data.
+	 * @param type The storable class
+	 * @param data The data being saved
+	 */
+	public static void stamp(Class<?> type, Data data) {
+		int version = version(type);
+		if (version > 0) {
+			data.putInt(versionKey(type), version);
+		}
+	}
+
+	/**
+	 * Upgrades data to the current version of a class, if it was stored with an older version.
+	 * Versions without a registered migration are skipped.
+	 * @param type The storable class
+	 * @param data The data being loaded, which is changed in place
+	 */
+	public static void migrate(Class<?> type, Data data) {
+		int version = version(type);
+		if (version == 0) {
+			return;
+		}
+
+		String key = versionKey(type);
+		int stored = data.containsKey(key) ? data.getInt(key) : 0;
+		if (stored >= version) {
+			return;
+		}
+
+		Map<Integer, Consumer<Data>> typeMigrations = migrations.get(type);
+		if (typeMigrations != null) {
+			for (int from = stored; from < version; from++) {
+				Consumer<Data> migration = typeMigrations.get(from);
+				if (migration != null) {
+					migration.accept(data);
+				}
+			}
+		}
+		data.putInt(key, version);
+	}
+}
@@ -0,0 +1,398 @@
+package nova.core.retention;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A single file containing many keyed data records, accessed through a memory mapped buffer.
+ *
+ * The file is split into sectors. The first sector holds the header, every record starts at a sector boundary
+ * and spans a whole number of sectors. Each record starts with its state (live or free), its sector count,
+ * the lengths of its key and encoded data, a generation and a checksum. The index of keys and the allocation table
+ * of used sectors are rebuilt from the records when the file is opened.
+ *
+ * Records are never overwritten while they are live. A new version of a record is written to free sectors,
+ * and the old version is only marked free afterwards, so a crash leaves either the old or the new version.
+ * If both are left, the one with the higher generation wins. Records with a bad checksum are dropped,
+ * and the file is cut off at the first record whose header is unreadable, keeping all records before it.
+ */
+final class RegionFile implements Closeable {
+
+	static final int SECTOR_SIZE = 256;
+
+	private static final int MAGIC = 0x4E524547;
+	private static final int VERSION = 2;
+	private static final int HEADER_SECTORS = 1;
+	private static final int RECORD_HEADER_SIZE = 24;
+	private static final int FREE = 0;
+	private static final int LIVE = 1;
+	private static final int GROW_SECTORS = 1024;
+
+	private final File file;
+	private final Map<String, Integer> index = new HashMap<>();
+	private final BitSet used = new BitSet();
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int end;
+	private int generation;
+
+	RegionFile(File file) throws IOException {
+		this.file = file;
+		// Left behind if the game stopped while compacting, the region itself is still intact.
+		Files.deleteIfExists(compactFile().toPath());
+		open();
+	}
+
+	private File compactFile() {
+		return new File(file.getPath() + ".compact");
+	}
+
+	private void open() throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		index.clear();
+		used.clear();
+		buffer = null;
+		capacity = 0;
+		generation = 0;
+
+		if (channel.size() < SECTOR_SIZE) {
+			end = HEADER_SECTORS;
+			ensureCapacity(end);
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, VERSION);
+			writeEnd();
+		} else {
+			ByteBuffer header = ByteBuffer.allocate(12);
+			channel.read(header, 0);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				throw new IOException("Not a valid region file: " + file);
+			}
+			long sectorsOnDisk = channel.size() / SECTOR_SIZE;
+			end = (int) Math.max(HEADER_SECTORS, Math.min(header.getInt(8), sectorsOnDisk));
+			// Drop space left behind by growth, it is mapped again once needed.
+			if (channel.size() > (long) end * SECTOR_SIZE) {
+				channel.truncate((long) end * SECTOR_SIZE);
+			}
+			capacity = end;
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SECTOR_SIZE);
+			scan();
+		}
+	}
+
+	/**
+	 * Rebuilds the index from the records. Unreadable records are dropped instead of failing the whole file.
+	 */
+	private void scan() {
+		int sector = HEADER_SECTORS;
+		while (sector < end) {
+			int offset = sector * SECTOR_SIZE;
+			int state = buffer.getInt(offset);
+			int sectors = buffer.getInt(offset + 4);
+			if ((state != LIVE && state != FREE) || sectors <= 0 || sectors > end - sector) {
+				// The rest of the file cannot be found without a valid sector count, so cut it off.
+				end = sector;
+				writeEnd();
+				break;
+			}
+			if (state == LIVE) {
+				if (isValid(offset, sectors)) {
+					int recordGeneration = buffer.getInt(offset + 16);
+					String key = readKey(offset);
+					Integer other = index.get(key);
+					if (other == null || recordGeneration - buffer.getInt(other * SECTOR_SIZE + 16) > 0) {
+						if (other != null) {
+							free(other);
+						}
+						index.put(key, sector);
+						used.set(sector, sector + sectors);
+					} else {
+						buffer.putInt(offset, FREE);
+					}
+					if (recordGeneration - generation >= 0) {
+						generation = recordGeneration + 1;
+					}
+				} else {
+					buffer.putInt(offset, FREE);
+				}
+			}
+			sector += sectors;
+		}
+	}
+
+	private boolean isValid(int offset, int sectors) {
+		int keyLength = buffer.getInt(offset + 8);
+		int dataLength = buffer.getInt(offset + 12);
+		if (keyLength < 0 || dataLength < 0 || (long) RECORD_HEADER_SIZE + keyLength + dataLength > (long) sectors * SECTOR_SIZE) {
+			return false;
+		}
+		return buffer.getInt(offset + 20) == checksum(offset, keyLength + dataLength);
+	}
+
+	private int checksum(int offset, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + RECORD_HEADER_SIZE);
+		view.get(bytes);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return (int) crc.getValue();
+	}
+
+	private void ensureCapacity(int sectors) throws IOException {
+		if (buffer == null || sectors > capacity) {
+			capacity = Math.max(sectors, capacity + GROW_SECTORS);
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * SECTOR_SIZE);
+		}
+	}
+
+	private void writeEnd() {
+		buffer.putInt(8, end);
+	}
+
+	private String readKey(int offset) {
+		byte[] key = new byte[buffer.getInt(offset + 8)];
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + RECORD_HEADER_SIZE);
+		view.get(key);
+		return new String(key, StandardCharsets.UTF_8);
+	}
+
+	synchronized Set<String> keys() {
+		return Collections.unmodifiableSet(new HashSet<>(index.keySet()));
+	}
+
+	synchronized boolean contains(String key) {
+		return index.containsKey(key);
+	}
+
+	/**
+	 * @return The number of sectors in the file that are not used by any record.
+	 */
+	synchronized int freeSectors() {
+		return end - HEADER_SECTORS - used.cardinality();
+	}
+
+	/**
+	 * @return The number of sectors in the file, including the header.
+	 */
+	synchronized int sectors() {
+		return end;
+	}
+
+	/**
+	 * Reads the encoded data of a record. The returned buffer is a read only view of the mapped file,
+	 * and is only valid until the next write, compaction or close.
+	 */
+	synchronized Optional<ByteBuffer> read(String key) {
+		Integer sector = index.get(key);
+		if (sector == null) {
+			return Optional.empty();
+		}
+		int offset = sector * SECTOR_SIZE;
+		int keyLength = buffer.getInt(offset + 8);
+		int dataLength = buffer.getInt(offset + 12);
+		ByteBuffer view = buffer.asReadOnlyBuffer();
+		view.position(offset + RECORD_HEADER_SIZE + keyLength);
+		view.limit(offset + RECORD_HEADER_SIZE + keyLength + dataLength);
+		return Optional.of(view.slice());
+	}
+
+	synchronized void write(String key, byte[] data) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int sectors = (RECORD_HEADER_SIZE + keyBytes.length + data.length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+		// The sectors of the previous version are still in use, so the new version never overwrites it.
+		Integer existing = index.get(key);
+		int sector = allocate(sectors);
+		int offset = sector * SECTOR_SIZE;
+
+		// Every step leaves a file that can be scanned: first the free space after the record gets its own header,
+		// then the record is claimed as free space of its final size, and only marked live once it is complete.
+		used.set(sector, sector + sectors);
+		markFreeAfter(sector + sectors);
+		buffer.putInt(offset, FREE);
+		buffer.putInt(offset + 4, sectors);
+
+		ByteBuffer view = buffer.duplicate();
+		view.position(offset + RECORD_HEADER_SIZE);
+		view.put(keyBytes);
+		view.put(data);
+		buffer.putInt(offset + 8, keyBytes.length);
+		buffer.putInt(offset + 12, data.length);
+		buffer.putInt(offset + 16, generation++);
+		buffer.putInt(offset + 20, checksum(offset, keyBytes.length + data.length));
+		buffer.putInt(offset, LIVE);
+
+		index.put(key, sector);
+		if (existing != null) {
+			free(existing);
+		}
+	}
+
+	synchronized boolean remove(String key) {
+		Integer sector = index.remove(key);
+		if (sector == null) {
+			return false;
+		}
+		free(sector);
+		return true;
+	}
+
+	private void free(int sector) {
+		int sectors = buffer.getInt(sector * SECTOR_SIZE + 4);
+		buffer.putInt(sector * SECTOR_SIZE, FREE);
+		used.clear(sector, sector + sectors);
+	}
+
+	/**
+	 * Finds the first run of free sectors that is large enough, or grows the file.
+	 */
+	private int allocate(int sectors) throws IOException {
+		int start = used.nextClearBit(HEADER_SECTORS);
+		while (start < end) {
+			int next = used.nextSetBit(start);
+			int runEnd = next < 0 || next > end ? end : next;
+			if (runEnd - start >= sectors) {
+				return start;
+			}
+			if (next < 0) {
+				break;
+			}
+			start = used.nextClearBit(next);
+		}
+
+		// Append at the end, reusing a trailing free run.
+		int sector = Math.min(start, end);
+		end = sector + sectors;
+		ensureCapacity(end);
+		writeEnd();
+		return sector;
+	}
+
+	/**
+	 * Writes a free record header covering the unused sectors following a record, so the file can still be scanned.
+	 */
+	private void markFreeAfter(int sector) {
+		if (sector < end && !used.get(sector)) {
+			int next = used.nextSetBit(sector);
+			int runEnd = next < 0 || next > end ? end : next;
+			buffer.putInt(sector * SECTOR_SIZE, FREE);
+			buffer.putInt(sector * SECTOR_SIZE + 4, runEnd - sector);
+		}
+	}
+
+	/**
+	 * Removes the free space between records, by copying all live records into a new file that replaces this one.
+	 * If the game stops while compacting, the old file is left as it was.
+	 */
+	synchronized void compact() throws IOException {
+		List<Map.Entry<String, Integer>> records = new ArrayList<>(index.entrySet());
+		records.sort(Map.Entry.comparingByValue());
+
+		int newEnd = HEADER_SECTORS;
+		for (Map.Entry<String, Integer> record : records) {
+			newEnd += buffer.getInt(record.getValue() * SECTOR_SIZE + 4);
+		}
+
+		File compacted = compactFile();
+		try (FileChannel out = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE);
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putInt(8, newEnd);
+			out.write(header);
+
+			for (Map.Entry<String, Integer> record : records) {
+				int offset = record.getValue() * SECTOR_SIZE;
+				ByteBuffer view = buffer.duplicate();
+				view.position(offset);
+				view.limit(offset + buffer.getInt(offset + 4) * SECTOR_SIZE);
+				while (view.hasRemaining()) {
+					out.write(view);
+				}
+			}
+			out.force(true);
+		}
+
+		buffer.force();
+		release();
+		try {
+			Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			open();
+		}
+	}
+
+	synchronized void flush() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		buffer.force();
+		release();
+	}
+
+	/**
+	 * Unmaps the buffer and closes the channel. The buffer must not be used afterwards.
+	 */
+	private void release() throws IOException {
+		MappedByteBuffer mapped = buffer;
+		buffer = null;
+		channel.close();
+		unmap(mapped);
+	}
+
+	/**
+	 * Unmaps a buffer right away, instead of when it is garbage collected, so the file can be replaced or deleted.
+	 * This uses JVM internals, if they are not available the buffer is left to the garbage collector.
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			// Java 9 and later
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+		} catch (NoSuchMethodException e) {
+			// Java 8
+			try {
+				Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+				cleanerMethod.setAccessible(true);
+				Object cleaner = cleanerMethod.invoke(buffer);
+				if (cleaner != null) {
+					cleaner.getClass().getMethod("clean").invoke(cleaner);
+				}
+			} catch (ReflectiveOperationException | RuntimeException ignored) {
+				// Left to the garbage collector.
+			}
+		} catch (ReflectiveOperationException | RuntimeException ignored) {
+			// Left to the garbage collector.
+		}
+	}
+}
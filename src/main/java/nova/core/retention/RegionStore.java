@@ -0,0 +1,217 @@
+package nova.core.retention;
+
+import nova.core.util.exception.NovaException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Stores many small keyed {@link Data} objects in a few large region files,
+ * instead of one file per object.
+ *
+ * Keys are spread over the region files by their hash. The number of region files is stored
+ * with them, as keys could not be found again if it changed. Each region file is memory mapped,
+ * and its space is handed out in sectors, so rewriting a record rarely needs to grow the file.
+ * Space freed by removed or grown records is reused, and {@link #compact()} gives it back.
+ * Data is encoded with {@link BinaryDataFormat}, and decoded lazily on read.
+ */
+public class RegionStore implements Closeable {
+
+	/**
+	 * The default number of region files.
+	 */
+	public static final int DEFAULT_REGIONS = 16;
+
+	private final File directory;
+	private final RegionFile[] regions;
+
+	public RegionStore(File directory) {
+		this(directory, DEFAULT_REGIONS);
+	}
+
+	/**
+	 * @param directory The directory of the region files
+	 * @param regionCount The number of region files, only used if the directory does not contain a store yet.
+	 */
+	public RegionStore(File directory, int regionCount) {
+		this.directory = directory;
+		this.regions = new RegionFile[readRegionCount().orElse(regionCount)];
+	}
+
+	private File regionCountFile() {
+		return new File(directory, "regions");
+	}
+
+	private Optional<Integer> readRegionCount() {
+		File file = regionCountFile();
+		if (!file.exists()) {
+			return Optional.empty();
+		}
+		try {
+			int count = Integer.parseInt(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+			if (count <= 0) {
+				throw new NumberFormatException("Region count must be positive: " + count);
+			}
+			return Optional.of(count);
+		} catch (IOException | NumberFormatException e) {
+			throw new NovaException("Failed to read the region count of " + directory, e);
+		}
+	}
+
+	private RegionFile region(String key) {
+		return region(Math.floorMod(key.hashCode(), regions.length));
+	}
+
+	private synchronized RegionFile region(int index) {
+		if (regions[index] == null) {
+			directory.mkdirs();
+			try {
+				File countFile = regionCountFile();
+				if (!countFile.exists()) {
+					Files.write(countFile.toPath(), Integer.toString(regions.length).getBytes(StandardCharsets.UTF_8));
+				}
+				regions[index] = new RegionFile(regionFile(index));
+			} catch (IOException e) {
+				throw new NovaException("Failed to open region " + index + " in " + directory, e);
+			}
+		}
+		return regions[index];
+	}
+
+	private File regionFile(int index) {
+		return new File(directory, "region-" + index + ".nreg");
+	}
+
+	/**
+	 * Runs an action on every region file that exists on disk or is already open.
+	 */
+	private void forEachRegion(Consumer<RegionFile> action) {
+		for (int i = 0; i < regions.length; i++) {
+			if (regions[i] != null || regionFile(i).exists()) {
+				action.accept(region(i));
+			}
+		}
+	}
+
+	/**
+	 * Writes data under a key, replacing any previous data.
+	 * @param key The key
+	 * @param data The data to store
+	 */
+	public void write(String key, Data data) {
+		try {
+			region(key).write(key, BinaryDataFormat.instance.encode(data));
+		} catch (IOException e) {
+			throw new NovaException("Failed to write " + key + " in " + directory, e);
+		}
+	}
+
+	/**
+	 * Reads the data stored under a key. Values are only decoded when they are accessed, see {@link LazyData}.
+	 * @param key The key
+	 * @return The data stored under the key, if any.
+	 */
+	public Optional<Data> read(String key) {
+		byte[] bytes;
+		RegionFile region = region(key);
+		synchronized (region) {
+			Optional<ByteBuffer> buffer = region.read(key);
+			if (!buffer.isPresent()) {
+				return Optional.empty();
+			}
+			// Copy out of the mapped file, as it may be rewritten while the data is still in use.
+			bytes = new byte[buffer.get().remaining()];
+			buffer.get().get(bytes);
+		}
+
+		try {
+			return Optional.of(BinaryDataFormat.instance.readLazy(bytes));
+		} catch (IOException e) {
+			throw new NovaException("Failed to read " + key + " in " + directory, e);
+		}
+	}
+
+	/**
+	 * Saves a storable under a key.
+	 * @param key The key
+	 * @param storable The storable to save
+	 */
+	public void save(String key, Storable storable) {
+		write(key, Data.serialize(storable));
+	}
+
+	/**
+	 * Loads a storable from the data stored under a key.
+	 * @param key The key
+	 * @param storable The storable to load into
+	 * @return True if there was data to load.
+	 */
+	public boolean load(String key, Storable storable) {
+		Optional<Data> data = read(key);
+		data.ifPresent(storable::load);
+		return data.isPresent();
+	}
+
+	/**
+	 * @param key The key
+	 * @return True if there was data stored under the key.
+	 */
+	public boolean remove(String key) {
+		return region(key).remove(key);
+	}
+
+	/**
+	 * @param key The key
+	 * @return True if there is data stored under the key.
+	 */
+	public boolean contains(String key) {
+		return region(key).contains(key);
+	}
+
+	/**
+	 * @return All keys stored in this store.
+	 */
+	public Set<String> keys() {
+		Set<String> keys = new HashSet<>();
+		forEachRegion(region -> keys.addAll(region.keys()));
+		return keys;
+	}
+
+	/**
+	 * Removes the free space between records in all region files.
+	 */
+	public void compact() {
+		forEachRegion(region -> {
+			try {
+				region.compact();
+			} catch (IOException e) {
+				throw new NovaException("Failed to compact a region in " + directory, e);
+			}
+		});
+	}
+
+	/**
+	 * Forces all changes to be written to disk.
+	 */
+	public void flush() {
+		forEachRegion(RegionFile::flush);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		for (int i = 0; i < regions.length; i++) {
+			if (regions[i] != null) {
+				regions[i].close();
+				regions[i] = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package nova.core.retention;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes data to files on a background thread.
+ *
+ * Callers take a snapshot of their data on their own thread, then hand it to {@link #save(File, Data)}.
+ * Encoding and writing happens on a dedicated I/O thread. Saving a file that is still waiting to be written
+ * replaces the waiting data, so it is only written once. Files are written to a temporary file first,
+ * and then moved over the old file, so a crash never leaves a half written file behind.
+ *
+ * When too many files are waiting to be written, {@link #save(File, Data)} blocks until one is done.
+ */
+public class SavePipeline {
+
+	/**
+	 * The default maximum number of files waiting to be written.
+	 */
+	public static final int DEFAULT_MAX_PENDING = 1024;
+
+	private final DataFormat format;
+	private final ThreadPoolExecutor executor;
+	private final Semaphore permits;
+	private final Map<File, PendingSave> pending = new HashMap<>();
+	private final Map<File, PendingSave> writing = new HashMap<>();
+
+	public SavePipeline(DataFormat format) {
+		this(format, DEFAULT_MAX_PENDING);
+	}
+
+	public SavePipeline(DataFormat format, int maxPending) {
+		this.format = format;
+		this.permits = new Semaphore(maxPending);
+		// The thread stops when idle, so it never keeps the game from exiting once everything is written.
+		this.executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "NOVA Save Thread");
+			thread.setPriority(Thread.NORM_PRIORITY - 1);
+			return thread;
+		});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Takes a snapshot of data, so that it can be written on another thread while the original keeps changing.
+	 * Nested data, collections and arrays are copied, other values are immutable.
+	 * Values of {@link LazyData} that were never accessed stay encoded.
+	 * @param data The data to copy
+	 * @return A deep copy of the data
+	 */
+	public static Data snapshot(Data data) {
+		Data copy = data instanceof LazyData ? new LazyData() : new Data();
+		copy.className = data.className;
+		data.rawEntrySet().forEach(entry -> copy.putRaw(entry.getKey(), snapshotValue(entry.getValue())));
+		return copy;
+	}
+
+	static Object snapshotValue(Object value) {
+		if (value instanceof Data) {
+			return snapshot((Data) value);
+		} else if (value instanceof Storable) {
+			return Data.serialize((Storable) value);
+		} else if (value instanceof Collection) {
+			List<Object> list = new ArrayList<>(((Collection<?>) value).size());
+			((Collection<?>) value).forEach(element -> list.add(snapshotValue(element)));
+			return list;
+		} else if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+		return value;
+	}
+
+	/**
+	 * Queues data to be written to a file.
+	 * The data must not be changed afterwards, use {@link #snapshot(Data)} if needed.
+	 * @param file The file to write to
+	 * @param data The data to write
+	 * @return A future that completes once the file is written
+	 */
+	public CompletableFuture<Void> save(File file, Data data) {
+		permits.acquireUninterruptibly();
+
+		synchronized (pending) {
+			PendingSave waiting = pending.get(file);
+			if (waiting != null) {
+				// Not written yet, so only the newest data needs to be written.
+				waiting.data = data;
+				permits.release();
+				return waiting.future;
+			}
+
+			PendingSave save = new PendingSave(data);
+			pending.put(file, save);
+			executor.execute(() -> write(file, save));
+			return save.future;
+		}
+	}
+
+	/**
+	 * @param file The file
+	 * @return A future that completes once the file has no more pending writes.
+	 */
+	public CompletableFuture<Void> await(File file) {
+		synchronized (pending) {
+			PendingSave waiting = pending.get(file);
+			if (waiting == null) {
+				waiting = writing.get(file);
+			}
+			return waiting != null ? waiting.future : CompletableFuture.completedFuture(null);
+		}
+	}
+
+	/**
+	 * @return A future that completes once everything queued so far is written.
+	 */
+	public CompletableFuture<Void> flush() {
+		synchronized (pending) {
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			pending.values().forEach(save -> futures.add(save.future));
+			writing.values().forEach(save -> futures.add(save.future));
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
+	}
+
+	/**
+	 * @return The number of files waiting to be written.
+	 */
+	public int pendingCount() {
+		synchronized (pending) {
+			return pending.size();
+		}
+	}
+
+	private void write(File file, PendingSave save) {
+		Data data;
+		synchronized (pending) {
+			pending.remove(file);
+			writing.put(file, save);
+			data = save.data;
+		}
+
+		try {
+			File parent = file.getAbsoluteFile().getParentFile();
+			parent.mkdirs();
+			File temp = new File(parent, file.getName() + ".tmp");
+
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+				format.write(data, out);
+			}
+
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			done(file, save);
+			save.future.complete(null);
+		} catch (IOException | RuntimeException e) {
+			done(file, save);
+			save.future.completeExceptionally(e);
+		} finally {
+			permits.release();
+		}
+	}
+
+	private void done(File file, PendingSave save) {
+		synchronized (pending) {
+			writing.remove(file, save);
+		}
+	}
+
+	private static class PendingSave {
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		volatile Data data;
+
+		PendingSave(Data data) {
+			this.data = data;
+		}
+	}
+}
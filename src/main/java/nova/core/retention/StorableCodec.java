@@ -0,0 +1,222 @@
+package nova.core.retention;
+
+import nova.core.component.Component;
+import nova.core.component.ComponentProvider;
+import nova.core.util.ReflectionUtil;
+import nova.core.util.exception.NovaException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Saves and loads the {@link Stored} fields of one class.
+ *
+ * The fields, their keys and method handles to access them are looked up once per class,
+ * so saving and loading does not need any reflection.
+ * Primitive fields are accessed through the typed methods of {@link Data}, so they are not boxed
+ * when saving to or loading from a {@link CompactData}.
+ */
+final class StorableCodec {
+
+	private static final ClassValue<StorableCodec> CODECS = new ClassValue<StorableCodec>() {
+		@Override
+		protected StorableCodec computeValue(Class<?> type) {
+			return new StorableCodec(type);
+		}
+	};
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * Primitive types, in the same order as their boxed types in {@link Data#dataTypes}.
+	 */
+	private static final Class<?>[] PRIMITIVES = {
+		boolean.class, byte.class, short.class, int.class, long.class, char.class, float.class, double.class };
+
+	private final Class<?> type;
+	private final StoredField[] fields;
+
+	private StorableCodec(Class<?> type) {
+		this.type = type;
+		List<StoredField> fields = new ArrayList<>();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		ReflectionUtil.forEachRecursiveAnnotatedField(Stored.class, type, (field, annotation) -> {
+			String key = annotation.key().isEmpty() ? field.getName() : annotation.key();
+			try {
+				field.setAccessible(true);
+				Class<?> fieldType = field.getType();
+				MethodHandle getter = lookup.unreflectGetter(field);
+				MethodHandle setter = lookup.unreflectSetter(field);
+				if (fieldType.isPrimitive()) {
+					getter = getter.asType(MethodType.methodType(fieldType, Object.class));
+					setter = setter.asType(MethodType.methodType(void.class, Object.class, fieldType));
+				} else {
+					getter = getter.asType(GETTER_TYPE);
+					setter = setter.asType(SETTER_TYPE);
+				}
+				fields.add(new StoredField(key, fieldType, getter, setter));
+			} catch (IllegalAccessException e) {
+				throw new NovaException("Failed to access stored field " + field, e);
+			}
+		});
+
+		this.fields = fields.toArray(new StoredField[fields.size()]);
+	}
+
+	static StorableCodec of(Class<?> type) {
+		return CODECS.get(type);
+	}
+
+	void save(Storable obj, Data data) {
+		Migrations.stamp(type, data);
+		for (StoredField field : fields) {
+			try {
+				if (field.primitive >= 0) {
+					savePrimitive(field, obj, data);
+				} else {
+					data.put(field.key, (Object) field.getter.invokeExact((Object) obj));
+				}
+			} catch (Exception e) {
+				e.printStackTrace();
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new NovaException(t);
+			}
+		}
+
+		if (obj instanceof ComponentProvider) {
+			for (Component component : ((ComponentProvider) obj).components()) {
+				if (component instanceof Storable) {
+					((Storable) component).save(data);
+					Migrations.stamp(component.getClass(), data);
+				}
+			}
+		}
+	}
+
+	void load(Storable obj, Data data) {
+		Migrations.migrate(type, data);
+		for (StoredField field : fields) {
+			if (field.primitive >= 0) {
+				if (data.containsKey(field.key)) {
+					try {
+						loadPrimitive(field, obj, data);
+					} catch (Exception e) {
+						e.printStackTrace();
+					} catch (Error e) {
+						throw e;
+					} catch (Throwable t) {
+						throw new NovaException(t);
+					}
+				}
+				continue;
+			}
+
+			Object value = data.get(field.key);
+			if (value != null || data.containsKey(field.key)) {
+				try {
+					if (field.storable || value instanceof Data) {
+						value = Data.unserialize((Data) value);
+					}
+					field.setter.invokeExact((Object) obj, value);
+				} catch (Exception e) {
+					e.printStackTrace();
+				} catch (Error e) {
+					throw e;
+				} catch (Throwable t) {
+					throw new NovaException(t);
+				}
+			}
+		}
+
+		if (obj instanceof ComponentProvider) {
+			for (Component component : ((ComponentProvider) obj).components()) {
+				if (component instanceof Storable) {
+					((Storable) component).load(data);
+				}
+			}
+		}
+	}
+
+	private static void savePrimitive(StoredField field, Storable obj, Data data) throws Throwable {
+		switch (field.primitive) {
+			case BinaryDataFormat.BOOLEAN:
+				data.putBoolean(field.key, (boolean) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.BYTE:
+				data.putByte(field.key, (byte) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.SHORT:
+				data.putShort(field.key, (short) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.INTEGER:
+				data.putInt(field.key, (int) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.LONG:
+				data.putLong(field.key, (long) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.CHARACTER:
+				data.putChar(field.key, (char) field.getter.invokeExact((Object) obj));
+				break;
+			case BinaryDataFormat.FLOAT:
+				data.putFloat(field.key, (float) field.getter.invokeExact((Object) obj));
+				break;
+			default:
+				data.putDouble(field.key, (double) field.getter.invokeExact((Object) obj));
+		}
+	}
+
+	private static void loadPrimitive(StoredField field, Storable obj, Data data) throws Throwable {
+		switch (field.primitive) {
+			case BinaryDataFormat.BOOLEAN:
+				field.setter.invokeExact((Object) obj, data.getBoolean(field.key));
+				break;
+			case BinaryDataFormat.BYTE:
+				field.setter.invokeExact((Object) obj, data.getByte(field.key));
+				break;
+			case BinaryDataFormat.SHORT:
+				field.setter.invokeExact((Object) obj, data.getShort(field.key));
+				break;
+			case BinaryDataFormat.INTEGER:
+				field.setter.invokeExact((Object) obj, data.getInt(field.key));
+				break;
+			case BinaryDataFormat.LONG:
+				field.setter.invokeExact((Object) obj, data.getLong(field.key));
+				break;
+			case BinaryDataFormat.CHARACTER:
+				field.setter.invokeExact((Object) obj, data.getChar(field.key));
+				break;
+			case BinaryDataFormat.FLOAT:
+				field.setter.invokeExact((Object) obj, data.getFloat(field.key));
+				break;
+			default:
+				field.setter.invokeExact((Object) obj, data.getDouble(field.key));
+		}
+	}
+
+	private static class StoredField {
+		final String key;
+		final boolean storable;
+		/**
+		 * The index of the boxed type in {@link Data#dataTypes} for primitive fields, otherwise -1.
+		 */
+		final int primitive;
+		final MethodHandle getter;
+		final MethodHandle setter;
+
+		StoredField(String key, Class<?> type, MethodHandle getter, MethodHandle setter) {
+			this.key = key;
+			this.storable = Storable.class.isAssignableFrom(type);
+			this.primitive = Arrays.asList(PRIMITIVES).indexOf(type);
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+}
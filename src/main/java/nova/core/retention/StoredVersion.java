@@ -0,0 +1,18 @@
+package nova.core.retention;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the version of the stored layout of a {@link Storable} class.
+ * Increase it whenever stored fields are renamed or change meaning,
+ * and register a migration from the previous version with {@link Migrations#register}.
+ * Classes without this annotation are at version 0.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface StoredVersion {
+	int value();
+}
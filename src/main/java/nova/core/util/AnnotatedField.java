@@ -0,0 +1,99 @@
+package nova.core.util;
+
+import nova.core.util.exception.NovaException;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * A field with an annotation, with method handles to access it.
+ * Instances are created and cached by {@link ReflectionUtil#annotatedFields(Class, Class)}.
+ * @param <A> The annotation type
+ */
+public final class AnnotatedField<A extends Annotation> {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Field field;
+	private final A annotation;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	AnnotatedField(Field field, A annotation) {
+		this.field = field;
+		this.annotation = annotation;
+
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodHandle getter = null;
+		MethodHandle setter = null;
+		try {
+			field.setAccessible(true);
+			getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+			setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			// Left inaccessible, get and set will fail.
+		}
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	public Field field() {
+		return field;
+	}
+
+	public A annotation() {
+		return annotation;
+	}
+
+	/**
+	 * @return A handle of type (Object)Object that gets the value of the field, or null if the field is inaccessible.
+	 */
+	public MethodHandle getter() {
+		return getter;
+	}
+
+	/**
+	 * @return A handle of type (Object, Object)void that sets the value of the field, or null if the field is inaccessible.
+	 */
+	public MethodHandle setter() {
+		return setter;
+	}
+
+	/**
+	 * @param instance The object to get the value from
+	 * @return The value of the field
+	 */
+	public Object get(Object instance) {
+		if (getter == null) {
+			throw new NovaException("Cannot access field " + field);
+		}
+		try {
+			return (Object) getter.invokeExact(instance);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new NovaException(t);
+		}
+	}
+
+	/**
+	 * @param instance The object to set the value in
+	 * @param value The new value of the field
+	 */
+	public void set(Object instance, Object value) {
+		if (setter == null) {
+			throw new NovaException("Cannot access field " + field);
+		}
+		try {
+			setter.invokeExact(instance, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new NovaException(t);
+		}
+	}
+}
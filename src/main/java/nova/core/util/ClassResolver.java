@@ -0,0 +1,275 @@
+package nova.core.util;
+
+import nova.core.util.exception.NovaException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resolves classes by name and creates instances of them, caching both.
+ *
+ * Decoding stored or received data looks up the same few classes over and over again.
+ * Class names are resolved once, and no-argument constructors are compiled into a {@link Supplier},
+ * so decoding does not need any reflection once a class has been seen.
+ *
+ * Registered blocks, items and entities are created the same way, through {@link #constructor(Class)}.
+ */
+public final class ClassResolver {
+
+	/**
+	 * Classes by name. Classes are only weakly referenced, so the cache does not keep them from being unloaded.
+	 */
+	private static final Map<String, WeakReference<Class<?>>> classes = new ConcurrentHashMap<>();
+
+	private static final ClassValue<Supplier<?>> factories = new ClassValue<Supplier<?>>() {
+		@Override
+		protected Supplier<?> computeValue(Class<?> type) {
+			return createFactory(type);
+		}
+	};
+
+	/**
+	 * Constructors with up to this many parameters are compiled by {@link #constructor(Class)}.
+	 */
+	private static final int MAX_COMPILED_PARAMETERS = 3;
+
+	private static final ClassValue<Function<Object[], ?>> constructors = new ClassValue<Function<Object[], ?>>() {
+		@Override
+		protected Function<Object[], ?> computeValue(Class<?> type) {
+			return createConstructor(type);
+		}
+	};
+
+	private ClassResolver() {
+
+	}
+
+	/**
+	 * Finds a class by its name.
+	 * @param name The fully qualified class name
+	 * @return The class
+	 * @throws ClassNotFoundException If the class does not exist
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Class<T> forName(String name) throws ClassNotFoundException {
+		WeakReference<Class<?>> reference = classes.get(name);
+		Class<?> clazz = reference != null ? reference.get() : null;
+		if (clazz == null) {
+			clazz = Class.forName(name);
+			classes.put(name, new WeakReference<>(clazz));
+		}
+		return (Class<T>) clazz;
+	}
+
+	/**
+	 * @param type The class to create instances of
+	 * @return A factory calling the no-argument constructor of the class.
+	 * The factory throws a {@link NovaException} if the class cannot be instantiated.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<T> factory(Class<T> type) {
+		return (Supplier<T>) factories.get(type);
+	}
+
+	/**
+	 * Creates an instance using the no-argument constructor of a class.
+	 * @param type The class to instantiate
+	 * @return The new instance
+	 */
+	public static <T> T newInstance(Class<T> type) {
+		return factory(type).get();
+	}
+
+	/**
+	 * Creates a constructor function that behaves like {@link ReflectionUtil#newInstance(Class, Object...)}:
+	 * the public constructor whose parameter types are exactly the types of the arguments is called.
+	 *
+	 * Constructors with few parameters are compiled into lambdas when the function is created,
+	 * so creating instances with them does not need any reflection. Other constructors fall back to {@link ReflectionUtil}.
+	 * @param type The class to create instances of
+	 * @return A function creating instances from constructor arguments
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Function<Object[], T> constructor(Class<? extends T> type) {
+		return (Function<Object[], T>) constructors.get(type);
+	}
+
+	private static Function<Object[], ?> createConstructor(Class<?> type) {
+		Supplier<?> noArgs = factory(type);
+		List<CompiledConstructor> compiled = new ArrayList<>();
+
+		if (Modifier.isPublic(type.getModifiers()) && !Modifier.isAbstract(type.getModifiers()) && isVisible(type)) {
+			for (Constructor<?> constructor : type.getConstructors()) {
+				int count = constructor.getParameterCount();
+				if (count > 0 && count <= MAX_COMPILED_PARAMETERS && !constructor.isVarArgs() && isCompilable(constructor.getParameterTypes())) {
+					try {
+						compiled.add(new CompiledConstructor(constructor));
+					} catch (Throwable t) {
+						// Falls back to ReflectionUtil.
+					}
+				}
+			}
+		}
+
+		CompiledConstructor[] candidates = compiled.toArray(new CompiledConstructor[compiled.size()]);
+		return args -> {
+			if (args == null || args.length == 0) {
+				return noArgs.get();
+			}
+			for (CompiledConstructor candidate : candidates) {
+				if (candidate.accepts(args)) {
+					return candidate.function.apply(args);
+				}
+			}
+			return ReflectionUtil.newInstance(type, args);
+		};
+	}
+
+	/**
+	 * Primitive parameters never match the exact argument types, since arguments are always boxed.
+	 */
+	private static boolean isCompilable(Class<?>[] parameterTypes) {
+		for (Class<?> parameterType : parameterTypes) {
+			if (parameterType.isPrimitive() || !Modifier.isPublic(parameterType.getModifiers()) || !isVisible(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Supplier<?> createFactory(Class<?> type) {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			return () -> {
+				throw new NovaException(type + " has no constructor without arguments.", e);
+			};
+		}
+
+		if (Modifier.isAbstract(type.getModifiers())) {
+			return () -> {
+				throw new NovaException(type + " is abstract, and cannot be instantiated.");
+			};
+		}
+
+		if (Modifier.isPublic(type.getModifiers()) && Modifier.isPublic(constructor.getModifiers()) && isVisible(type)) {
+			try {
+				return compile(type);
+			} catch (Throwable t) {
+				// Fall back to a method handle below.
+			}
+		}
+
+		try {
+			constructor.setAccessible(true);
+			MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+			return () -> {
+				try {
+					return handle.invokeExact();
+				} catch (RuntimeException | Error e) {
+					throw e;
+				} catch (Throwable t) {
+					throw new NovaException(t);
+				}
+			};
+		} catch (IllegalAccessException | RuntimeException e) {
+			return () -> {
+				throw new NovaException("Cannot access the constructor of " + type, e);
+			};
+		}
+	}
+
+	private static Supplier<?> compile(Class<?> type) throws Throwable {
+		return (Supplier<?>) compile(Supplier.class, "get", type.getConstructor());
+	}
+
+	/**
+	 * Compiles the constructor into a lambda implementing the given functional interface,
+	 * which the JIT can inline like a plain constructor call.
+	 */
+	private static Object compile(Class<?> functionType, String method, Constructor<?> constructor) throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		Class<?>[] parameterTypes = constructor.getParameterTypes();
+		CallSite site = LambdaMetafactory.metafactory(
+			lookup,
+			method,
+			MethodType.methodType(functionType),
+			MethodType.genericMethodType(parameterTypes.length),
+			lookup.unreflectConstructor(constructor),
+			MethodType.methodType(constructor.getDeclaringClass(), parameterTypes));
+		return site.getTarget().invoke();
+	}
+
+	/**
+	 * A compiled constructor, which only accepts arguments of exactly its parameter types.
+	 */
+	private static final class CompiledConstructor {
+		final Class<?>[] parameterTypes;
+		final Function<Object[], ?> function;
+
+		@SuppressWarnings("unchecked")
+		CompiledConstructor(Constructor<?> constructor) throws Throwable {
+			this.parameterTypes = constructor.getParameterTypes();
+			switch (parameterTypes.length) {
+				case 1: {
+					Function<Object, ?> compiled = (Function<Object, ?>) compile(Function.class, "apply", constructor);
+					function = args -> compiled.apply(args[0]);
+					break;
+				}
+				case 2: {
+					BiFunction<Object, Object, ?> compiled = (BiFunction<Object, Object, ?>) compile(BiFunction.class, "apply", constructor);
+					function = args -> compiled.apply(args[0], args[1]);
+					break;
+				}
+				case 3: {
+					TriFunction compiled = (TriFunction) compile(TriFunction.class, "apply", constructor);
+					function = args -> compiled.apply(args[0], args[1], args[2]);
+					break;
+				}
+				default:
+					throw new IllegalArgumentException("Too many parameters: " + constructor);
+			}
+		}
+
+		boolean accepts(Object[] args) {
+			if (args.length != parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				if (args[i] == null || args[i].getClass() != parameterTypes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	interface TriFunction {
+		Object apply(Object a, Object b, Object c);
+	}
+
+	/**
+	 * Compiled factories link against the class by name, so it must be visible from this class loader.
+	 */
+	private static boolean isVisible(Class<?> type) {
+		try {
+			return Class.forName(type.getName(), false, ClassResolver.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
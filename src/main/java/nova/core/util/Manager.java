@@ -14,7 +14,7 @@ public abstract class Manager<T extends Identifiable, F extends Factory<T>> {
 	}
 
 	public F register(Class<? extends T> registerType) {
-		return register((args) -> ReflectionUtil.newInstance(registerType, args));
+		return register(ClassResolver.constructor(registerType));
 	}
 
 	public abstract F register(Function<Object[], T> constructor);
@@ -1,14 +1,20 @@
 package nova.core.util;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 
 import nova.core.util.exception.NovaException;
@@ -24,6 +30,41 @@ public class ReflectionUtil {
 	 */
 	private static final List<Class<?>> PRIMITIVE_WIDENING = Arrays.asList(Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class);
 
+	/**
+	 * The annotated fields of each class, by annotation type.
+	 */
+	private static final ClassValue<Map<Class<?>, List<AnnotatedField<?>>>> annotatedFieldIndex = new ClassValue<Map<Class<?>, List<AnnotatedField<?>>>>() {
+		@Override
+		protected Map<Class<?>, List<AnnotatedField<?>>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * The type of the constructor handles below, taking the arguments as an array and returning the new instance.
+	 */
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+	/**
+	 * The constructors used by {@link #newInstanceMatching(Class, Object...)} for each class, by argument types.
+	 */
+	private static final ClassValue<Map<List<Class<?>>, MethodHandle>> matchingConstructors = new ClassValue<Map<List<Class<?>>, MethodHandle>>() {
+		@Override
+		protected Map<List<Class<?>>, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * The constructors used by {@link #newInstance(Class, Object...)} for each class, by argument types.
+	 */
+	private static final ClassValue<Map<List<Class<?>>, MethodHandle>> exactConstructors = new ClassValue<Map<List<Class<?>>, MethodHandle>>() {
+		@Override
+		protected Map<List<Class<?>>, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
 	private ReflectionUtil() {
 	}
 
@@ -245,26 +286,84 @@ public class ReflectionUtil {
 		}
 	}
 
+	/**
+	 * Creates an instance using the constructor that best matches the arguments.
+	 * The constructor is resolved once for each combination of argument types, and cached.
+	 * @param clazz The class to instantiate
+	 * @param args The arguments, var-args are collected as in a normal constructor call
+	 * @return The new instance
+	 */
 	public static <T> T newInstanceMatching(Class<T> clazz, Object... args) {
-		try {
-			if (args != null && args.length > 0) {
-				return newInstanceMatching(findMatchingConstructor(clazz, types(args)).get(), args);
-			} else {
-				return clazz.newInstance();
-			}
-		} catch (Exception e) {
-			throw new NovaException(e);
+		if (args == null || args.length == 0) {
+			return ClassResolver.newInstance(clazz);
 		}
+
+		Class<?>[] types = types(args);
+		MethodHandle constructor = matchingConstructors.get(clazz).computeIfAbsent(Arrays.asList(types), key -> {
+			Optional<Constructor<T>> match = findMatchingConstructor(clazz, types);
+			if (!match.isPresent()) {
+				throw new NovaException("No constructor of " + clazz + " matches " + key);
+			}
+			return bind(match.get(), types);
+		});
+		return construct(constructor, args);
 	}
 
+	/**
+	 * Creates an instance using the public constructor whose parameter types are exactly the types of the arguments.
+	 * The constructor is resolved once for each combination of argument types, and cached.
+	 * @param clazz The class to instantiate
+	 * @param args The arguments
+	 * @return The new instance
+	 */
 	public static <T> T newInstance(Class<T> clazz, Object... args) {
+		if (args == null || args.length == 0) {
+			return ClassResolver.newInstance(clazz);
+		}
+
+		Class<?>[] types = types(args);
+		MethodHandle constructor = exactConstructors.get(clazz).computeIfAbsent(Arrays.asList(types), key -> {
+			try {
+				return bind(clazz.getConstructor(types), types);
+			} catch (NoSuchMethodException e) {
+				throw new NovaException(e);
+			}
+		});
+		return construct(constructor, args);
+	}
+
+	/**
+	 * Adapts a constructor to take its arguments as an array of the given types,
+	 * collecting trailing arguments into the var-args array where needed.
+	 */
+	private static MethodHandle bind(Constructor<?> constr, Class<?>[] types) {
 		try {
-			if (args != null && args.length > 0) {
-				return clazz.getConstructor(types(args)).newInstance(args);
+			constr.setAccessible(true);
+			MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constr).asFixedArity();
+
+			if (constr.isVarArgs()) {
+				int last = constr.getParameterCount() - 1;
+				Class<?> arrayType = constr.getParameterTypes()[last];
+				boolean passesArray = types.length == constr.getParameterCount() && types[last].isArray() && arrayType.isAssignableFrom(types[last]);
+				if (!passesArray) {
+					handle = handle.asCollector(arrayType, types.length - last);
+				}
 			}
-			return clazz.newInstance();
-		} catch (Exception e) {
-			throw new NovaException(e);
+
+			return handle.asSpreader(Object[].class, types.length).asType(CONSTRUCTOR_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new NovaException("Cannot access constructor " + constr, e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T construct(MethodHandle constructor, Object[] args) {
+		try {
+			return (T) (Object) constructor.invokeExact(args);
+		} catch (NovaException e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new NovaException(t);
 		}
 	}
 
@@ -298,16 +397,39 @@ public class ReflectionUtil {
 		return fields;
 	}
 
-	// TODO: Cache this?
 	public static <T extends Annotation> void forEachRecursiveAnnotatedField(Class<T> annotation, Class<?> clazz, BiConsumer<Field, T> action) {
-		Arrays.stream(clazz.getDeclaredFields())
-			.filter(f -> f.isAnnotationPresent(annotation) && !f.isSynthetic())
-			.forEachOrdered(f -> action.accept(f, f.getAnnotation(annotation)));
+		for (AnnotatedField<T> field : annotatedFields(annotation, clazz)) {
+			action.accept(field.field(), field.annotation());
+		}
+	}
 
-		Class<?> superClass = clazz.getSuperclass();
+	/**
+	 * Gets all the annotated fields of this class, including all the parents
+	 * classes in the order of hierarchy. The fields are looked up once per class
+	 * and annotation, and come with method handles to access them.
+	 *
+	 * @param annotation Your annotation class.
+	 * @param clazz Class to search through.
+	 * @return An unmodifiable list of annotated fields, from the most sub class
+	 *         to the most super class.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Annotation> List<AnnotatedField<T>> annotatedFields(Class<T> annotation, Class<?> clazz) {
+		return (List) annotatedFieldIndex.get(clazz).computeIfAbsent(annotation, a -> indexAnnotatedFields(annotation, clazz));
+	}
 
+	private static <T extends Annotation> List<AnnotatedField<?>> indexAnnotatedFields(Class<T> annotation, Class<?> clazz) {
+		List<AnnotatedField<?>> fields = new ArrayList<>();
+		for (Field field : clazz.getDeclaredFields()) {
+			if (field.isAnnotationPresent(annotation) && !field.isSynthetic()) {
+				fields.add(new AnnotatedField<>(field, field.getAnnotation(annotation)));
+			}
+		}
+
+		Class<?> superClass = clazz.getSuperclass();
 		if (superClass != null) {
-			forEachRecursiveAnnotatedField(annotation, superClass, action);
+			fields.addAll(annotatedFields(annotation, superClass));
 		}
+		return Collections.unmodifiableList(fields);
 	}
 }
@@ -1,10 +1,27 @@
 package nova.core.util;
 
+import nova.core.retention.BinaryDataFormat;
+import nova.core.retention.ChangeTracked;
+import nova.core.retention.Data;
+import nova.core.retention.DataFormat;
+import nova.core.retention.Journal;
+import nova.core.retention.SavePipeline;
 import nova.core.retention.Storable;
+import nova.core.util.exception.NovaException;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A manager that handles external file saving.
@@ -17,6 +34,27 @@ public abstract class RetentionManager {
 	 */
 	protected Map<String, Storable> saveQueue = new HashMap<>();
 
+	/**
+	 * The format used to save files in the save directory.
+	 */
+	private DataFormat format = BinaryDataFormat.instance;
+
+	/**
+	 * Writes files in the background, created on first use.
+	 */
+	private SavePipeline pipeline;
+
+	/**
+	 * Journals opened by {@link #getJournal(String)}.
+	 */
+	private final Map<String, Journal> journals = new ConcurrentHashMap<>();
+
+	/**
+	 * The change counts of {@link ChangeTracked} objects when their file was last saved or loaded.
+	 * Keyed by the file itself, so a new format or save directory is never considered saved already.
+	 */
+	private final Map<File, SavedState> savedStates = new ConcurrentHashMap<>();
+
 	/**
 	 * Saves a storable into the appropriate directory.
 	 * @param filename - The file name to save the data as.
@@ -44,4 +82,194 @@ public abstract class RetentionManager {
 	 * @return Gets the default directory in where game files are saved.
 	 */
 	public abstract File getSaveDirectory();
+
+	/**
+	 * @return The format used by {@link #saveFile(String, Storable)} and {@link #loadFile(String, Storable)}.
+	 */
+	public DataFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Selects the format used to save files in the save directory.
+	 * @param format - The format to use.
+	 */
+	public void setFormat(DataFormat format) {
+		if (pipeline != null) {
+			flush().join();
+			pipeline = null;
+		}
+		this.format = format;
+	}
+
+	/**
+	 * @return The pipeline that writes files in the background.
+	 */
+	public SavePipeline getPipeline() {
+		if (pipeline == null) {
+			pipeline = new SavePipeline(format);
+		}
+		return pipeline;
+	}
+
+	/**
+	 * @param filename - The file name the data is saved as.
+	 * @return The file in the save directory that the data is saved to, using the current format.
+	 */
+	public File getFile(String filename) {
+		return new File(getSaveDirectory(), filename + "." + format.extension());
+	}
+
+	/**
+	 * Writes a storable to its file in the save directory, using the current format.
+	 * Implementations can use this to implement {@link #save(String, Storable)}.
+	 * @param filename - The file name to save the data as.
+	 * @param storable - The storable object instance.
+	 */
+	public void saveFile(String filename, Storable storable) {
+		if (isUnchanged(filename, storable)) {
+			return;
+		}
+
+		File file = getFile(filename);
+		file.getParentFile().mkdirs();
+		long changeCount = getChangeCount(storable);
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			format.write(Data.serialize(storable), out);
+		} catch (IOException e) {
+			throw new NovaException("Failed to save " + file, e);
+		}
+		markSaved(file, storable, changeCount);
+	}
+
+	/**
+	 * Checks if a storable is unchanged since it was last saved to or loaded from a file.
+	 * This is only known for {@link ChangeTracked} objects, other objects are always considered changed.
+	 * @param filename - The file name the data is saved as.
+	 * @param storable - The storable object instance.
+	 * @return True if the file already contains the current data of the storable.
+	 */
+	public boolean isUnchanged(String filename, Storable storable) {
+		SavedState state = savedStates.get(getFile(filename));
+		return state != null
+			&& storable instanceof ChangeTracked
+			&& state.storable.get() == storable
+			&& state.changeCount == ((ChangeTracked) storable).getChangeCount();
+	}
+
+	private long getChangeCount(Storable storable) {
+		return storable instanceof ChangeTracked ? ((ChangeTracked) storable).getChangeCount() : 0;
+	}
+
+	private void markSaved(File file, Storable storable, long changeCount) {
+		if (storable instanceof ChangeTracked) {
+			savedStates.put(file, new SavedState(storable, changeCount));
+		} else {
+			savedStates.remove(file);
+		}
+	}
+
+	/**
+	 * Saves a storable to its file in the save directory in the background, using the current format.
+	 * The data of the storable is copied right away, so it may keep changing after this method returns.
+	 * @param filename - The file name to save the data as.
+	 * @param storable - The storable object instance.
+	 * @return A future that completes once the file is written.
+	 */
+	public CompletableFuture<Void> saveAsync(String filename, Storable storable) {
+		File file = getFile(filename);
+		if (isUnchanged(filename, storable)) {
+			// Nothing new to write, but a previous save of the same data may still be in progress.
+			return pipeline != null ? pipeline.await(file) : CompletableFuture.completedFuture(null);
+		}
+
+		long changeCount = getChangeCount(storable);
+		return getPipeline()
+			.save(file, SavePipeline.snapshot(Data.serialize(storable)))
+			.thenRun(() -> markSaved(file, storable, changeCount));
+	}
+
+	/**
+	 * Saves all queued storables in the background, and clears the queue.
+	 * Implementations should call this when the game saves.
+	 * @return A future that completes once all queued storables are written.
+	 */
+	public CompletableFuture<Void> saveQueued() {
+		CompletableFuture<?>[] saves = saveQueue.entrySet().stream()
+			.map(entry -> saveAsync(entry.getKey(), entry.getValue()))
+			.toArray(CompletableFuture[]::new);
+		saveQueue.clear();
+		return CompletableFuture.allOf(saves);
+	}
+
+	/**
+	 * Gets the journal for data that changes too often to save whole files, opening it on first use.
+	 * @param filename - The file name of the journal in the save directory.
+	 * @return The journal
+	 */
+	public Journal getJournal(String filename) {
+		return journals.computeIfAbsent(filename, name -> new Journal(new File(getSaveDirectory(), name + ".journal")));
+	}
+
+	/**
+	 * Writes all pending journal changes and closes the journals.
+	 * Implementations should call this when the save directory is unloaded.
+	 */
+	public void closeJournals() {
+		journals.values().forEach(journal -> {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				throw new NovaException("Failed to close journal", e);
+			}
+		});
+		journals.clear();
+	}
+
+	/**
+	 * @return A future that completes once all background saves and journal changes started so far are written.
+	 */
+	public CompletableFuture<Void> flush() {
+		CompletableFuture<?>[] futures = journals.values().stream()
+			.map(Journal::flush)
+			.toArray(CompletableFuture[]::new);
+		CompletableFuture<Void> journalsFlushed = CompletableFuture.allOf(futures);
+		return pipeline != null ? CompletableFuture.allOf(pipeline.flush(), journalsFlushed) : journalsFlushed;
+	}
+
+	/**
+	 * Reads a storable from its file in the save directory, using the current format.
+	 * Implementations can use this to implement {@link #load(String, Storable)}.
+	 * If the file does not exist, the storable is left unchanged.
+	 * @param filename - The file name the data was saved.
+	 * @param storable - The storable object instance.
+	 */
+	public void loadFile(String filename, Storable storable) {
+		File file = getFile(filename);
+		if (pipeline != null) {
+			// Make sure a background save of the same file is finished first.
+			pipeline.await(file).exceptionally(e -> null).join();
+		}
+		if (!file.exists()) {
+			return;
+		}
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			storable.load(format.read(in));
+		} catch (IOException e) {
+			throw new NovaException("Failed to load " + file, e);
+		}
+		markSaved(file, storable, getChangeCount(storable));
+	}
+
+	private static class SavedState {
+		final WeakReference<Storable> storable;
+		final long changeCount;
+
+		SavedState(Storable storable, long changeCount) {
+			this.storable = new WeakReference<>(storable);
+			this.changeCount = changeCount;
+		}
+	}
 }
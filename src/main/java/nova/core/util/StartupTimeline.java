@@ -0,0 +1,186 @@
+package nova.core.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each step of starting the game takes, such as constructing, injecting and initializing each mod.
+ *
+ * Steps may be recorded from several threads, and may be nested.
+ * The timeline can be written in the Chrome trace format with {@link #write(File)},
+ * which can be opened in chrome://tracing or other trace viewers.
+ */
+public class StartupTimeline {
+
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final long origin = System.nanoTime();
+	private final List<Span> spans = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Records a step.
+	 * @param category The kind of step, such as "construct" or "init"
+	 * @param name The name of the step, such as the mod it belongs to
+	 * @param action The step
+	 */
+	public void record(String category, String name, Runnable action) {
+		record(category, name, () -> {
+			action.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Records a step that produces a value.
+	 * @param category The kind of step, such as "construct" or "init"
+	 * @param name The name of the step, such as the mod it belongs to
+	 * @param action The step
+	 * @return The value produced by the step
+	 */
+	public <T> T record(String category, String name, Supplier<T> action) {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			return action.get();
+		} finally {
+			long end = System.nanoTime();
+			long allocatedAfter = allocatedBytes();
+			Thread thread = Thread.currentThread();
+			spans.add(new Span(category, name, start - origin, end - start, thread.getId(), thread.getName(),
+				allocated < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocated));
+		}
+	}
+
+	/**
+	 * @return The bytes allocated by the current thread so far, or -1 if the JVM does not measure it.
+	 */
+	private static long allocatedBytes() {
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+			if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The recorded steps, in the order they finished.
+	 */
+	public List<Span> getSpans() {
+		synchronized (spans) {
+			return new ArrayList<>(spans);
+		}
+	}
+
+	/**
+	 * @param category The kind of step
+	 * @return The total time spent in the steps of the category, by step name, in nanoseconds.
+	 */
+	public Map<String, Long> totals(String category) {
+		Map<String, Long> totals = new LinkedHashMap<>();
+		getSpans().stream()
+			.filter(span -> span.category.equals(category))
+			.forEach(span -> totals.merge(span.name, span.duration, Long::sum));
+		return totals;
+	}
+
+	/**
+	 * Writes the timeline as a Chrome trace file.
+	 * @param file The file to write to
+	 * @throws IOException If the file could not be written
+	 */
+	public void write(File file) throws IOException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			write(writer);
+		}
+	}
+
+	/**
+	 * Writes the timeline in the Chrome trace format.
+	 * @param writer The writer to write to
+	 * @throws IOException If writing failed
+	 */
+	public void write(Writer writer) throws IOException {
+		List<Span> spans = getSpans();
+		Map<Long, String> threadNames = new LinkedHashMap<>();
+		spans.forEach(span -> threadNames.putIfAbsent(span.threadId, span.threadName));
+
+		writer.write("{\"traceEvents\":[");
+		boolean first = true;
+		for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writer.write("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey() + ",\"args\":{\"name\":" + quote(thread.getValue()) + "}}");
+		}
+		for (Span span : spans) {
+			if (!first) {
+				writer.write(',');
+			}
+			first = false;
+			writer.write("\n{\"name\":" + quote(span.name) + ",\"cat\":" + quote(span.category) + ",\"ph\":\"X\",\"pid\":1,\"tid\":" + span.threadId +
+				",\"ts\":" + micros(span.start) + ",\"dur\":" + micros(span.duration) +
+				(span.allocatedBytes >= 0 ? ",\"args\":{\"allocatedBytes\":" + span.allocatedBytes + "}" : "") + "}");
+		}
+		writer.write("\n],\"displayTimeUnit\":\"ms\"}\n");
+	}
+
+	private static String micros(long nanos) {
+		return (nanos / 1000) + "." + String.format("%03d", nanos % 1000);
+	}
+
+	private static String quote(String value) {
+		StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+
+	/**
+	 * A recorded step. Times are in nanoseconds, relative to when the timeline was created.
+	 */
+	public static final class Span {
+		public final String category;
+		public final String name;
+		public final long start;
+		public final long duration;
+		public final long threadId;
+		public final String threadName;
+		/**
+		 * The bytes allocated by the thread during the step, or -1 if unknown.
+		 */
+		public final long allocatedBytes;
+
+		Span(String category, String name, long start, long duration, long threadId, String threadName, long allocatedBytes) {
+			this.category = category;
+			this.name = name;
+			this.start = start;
+			this.duration = duration;
+			this.threadId = threadId;
+			this.threadName = threadName;
+			this.allocatedBytes = allocatedBytes;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package nova.internal.launch;
+
+import nova.core.util.exception.NovaException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * How to construct a mod class and inject its dependencies, worked out once per class.
+ *
+ * Java mods are constructed with their public constructor with the most parameters, each parameter being injected.
+ * Scala singleton mods get each null field injected, including the fields of their superclasses.
+ */
+final class InjectionPlan {
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<InjectionPlan> plans = new ClassValue<InjectionPlan>() {
+		@Override
+		protected InjectionPlan computeValue(Class<?> type) {
+			return new InjectionPlan(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final Class<?>[] parameterTypes;
+	private final MethodHandle constructor;
+	private volatile List<InjectedField> fields;
+
+	private InjectionPlan(Class<?> type) {
+		this.type = type;
+
+		Optional<Constructor<?>> constructor = Arrays.stream(type.getConstructors())
+			.max(Comparator.comparingInt(Constructor::getParameterCount));
+
+		if (constructor.isPresent()) {
+			this.parameterTypes = constructor.get().getParameterTypes();
+			this.constructor = unreflect(constructor.get());
+		} else {
+			this.parameterTypes = new Class<?>[0];
+			this.constructor = null;
+		}
+	}
+
+	static InjectionPlan of(Class<?> type) {
+		return plans.get(type);
+	}
+
+	private static MethodHandle unreflect(Constructor<?> constructor) {
+		try {
+			constructor.setAccessible(true);
+			return MethodHandles.lookup().unreflectConstructor(constructor)
+				.asFixedArity()
+				.asSpreader(Object[].class, constructor.getParameterCount())
+				.asType(CONSTRUCTOR_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param resolver Resolves a dependency by its type
+	 * @return The arguments for the constructor
+	 */
+	Object[] resolveParameters(Function<Class<?>, Object> resolver) {
+		Object[] parameters = new Object[parameterTypes.length];
+		for (int i = 0; i < parameters.length; i++) {
+			parameters[i] = resolver.apply(parameterTypes[i]);
+		}
+		return parameters;
+	}
+
+	/**
+	 * Constructs the class.
+	 * @param parameters The arguments, from {@link #resolveParameters(Function)}
+	 * @return The new instance
+	 * @throws InstantiationException If the class has no usable public constructor
+	 * @throws InvocationTargetException If the constructor threw an exception
+	 */
+	Object construct(Object[] parameters) throws InstantiationException, InvocationTargetException {
+		if (constructor == null) {
+			throw new InstantiationException(type + " has no accessible public constructor.");
+		}
+		try {
+			return (Object) constructor.invokeExact(parameters);
+		} catch (Throwable t) {
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	/**
+	 * Injects every field that is null, in the class and its superclasses.
+	 * @param instance The object to inject
+	 * @param resolver Resolves a dependency by its type, or returns empty if it cannot be resolved
+	 */
+	void injectFields(Object instance, Function<Class<?>, Optional<Object>> resolver) {
+		for (InjectedField field : getFields()) {
+			try {
+				if ((Object) field.getter.invokeExact(instance) == null) {
+					Optional<Object> value = resolver.apply(field.type);
+					if (value.isPresent()) {
+						field.setter.invokeExact(instance, value.get());
+					}
+				}
+			} catch (Throwable t) {
+				throw new NovaException("Failed to inject " + field.name + " of " + type, t);
+			}
+		}
+	}
+
+	private List<InjectedField> getFields() {
+		if (fields == null) {
+			List<InjectedField> found = new ArrayList<>();
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+						continue;
+					}
+					try {
+						field.setAccessible(true);
+						found.add(new InjectedField(
+							c.getName() + "." + field.getName(),
+							field.getType(),
+							lookup.unreflectGetter(field).asType(GETTER_TYPE),
+							lookup.unreflectSetter(field).asType(SETTER_TYPE)));
+					} catch (IllegalAccessException | RuntimeException e) {
+						// Fields that cannot be accessed are not injected.
+					}
+				}
+			}
+			fields = Collections.unmodifiableList(found);
+		}
+		return fields;
+	}
+
+	private static final class InjectedField {
+		final String name;
+		final Class<?> type;
+		final MethodHandle getter;
+		final MethodHandle setter;
+
+		InjectedField(String name, Class<?> type, MethodHandle getter, MethodHandle setter) {
+			this.name = name;
+			this.type = type;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package nova.internal.launch;
+
+import nova.core.config.Config;
+import nova.core.network.Sync;
+import nova.core.retention.Stored;
+import nova.core.util.ReflectionUtil;
+import nova.core.util.exception.NovaException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * An index of mod classes, and of classes with annotated fields, written at build time by {@link ModIndexProcessor}.
+ *
+ * Wrappers can find mods from the index instead of scanning the whole class path.
+ * Each line of the index is a kind followed by a binary class name, such as "mod com.example.ExampleMod".
+ *
+ * Only jars and directories that contain an index are covered, see {@link #covers(URL)}.
+ * Mods built without the processor, and Scala mods, have no index,
+ * so wrappers still have to scan the jars and directories that are not covered.
+ */
+public class ModIndex {
+
+	/**
+	 * The location of the index in each jar or class directory.
+	 */
+	public static final String LOCATION = "META-INF/nova/index";
+
+	/**
+	 * Classes annotated with {@link nova.core.loader.NovaMod}.
+	 */
+	public static final String MOD = "mod";
+
+	/**
+	 * Classes with fields annotated with {@link nova.core.retention.Stored}.
+	 */
+	public static final String STORED = "stored";
+
+	/**
+	 * Classes with fields annotated with {@link nova.core.network.Sync}.
+	 */
+	public static final String SYNC = "sync";
+
+	/**
+	 * Classes with fields annotated with {@link nova.core.config.Config}.
+	 */
+	public static final String CONFIG = "config";
+
+	/**
+	 * The annotation of the fields of each kind of classes, whose lookups are cached by {@link #prewarm()}.
+	 */
+	private static final Map<String, Class<? extends Annotation>> fieldAnnotations = new LinkedHashMap<>();
+
+	static {
+		fieldAnnotations.put(STORED, Stored.class);
+		fieldAnnotations.put(SYNC, Sync.class);
+		fieldAnnotations.put(CONFIG, Config.class);
+	}
+
+	private final ClassLoader classLoader;
+	private final Map<String, Set<String>> classNames = new TreeMap<>();
+	private final Set<String> roots = new LinkedHashSet<>();
+
+	ModIndex(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Reads and merges all indexes visible to a class loader.
+	 * @param classLoader The class loader to find the indexes and classes with
+	 * @return The merged index, which is empty if no index was found
+	 */
+	public static ModIndex read(ClassLoader classLoader) {
+		ModIndex index = new ModIndex(classLoader);
+		try {
+			Enumeration<URL> resources = classLoader.getResources(LOCATION);
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try (Reader reader = new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8)) {
+					index.read(reader);
+				}
+				index.roots.add(root(resource));
+			}
+		} catch (IOException e) {
+			throw new NovaException("Failed to read mod index", e);
+		}
+		return index;
+	}
+
+	void read(Reader reader) throws IOException {
+		BufferedReader lines = new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] entry = line.split("\\s+", 2);
+			if (entry.length == 2) {
+				add(entry[0], entry[1]);
+			}
+		}
+	}
+
+	/**
+	 * @return The location of the jar or directory containing an index,
+	 * in the same form as a {@link java.security.CodeSource} location.
+	 */
+	static String root(URL resource) {
+		String url = resource.toString();
+		url = url.substring(0, url.length() - LOCATION.length());
+		if (url.startsWith("jar:") && url.endsWith("!/")) {
+			url = url.substring("jar:".length(), url.length() - "!/".length());
+		}
+		return url;
+	}
+
+	void add(String kind, String className) {
+		classNames.computeIfAbsent(kind, k -> new TreeSet<>()).add(className);
+	}
+
+	/**
+	 * @return True if no index was found, in which case wrappers should fall back to scanning.
+	 */
+	public boolean isEmpty() {
+		return classNames.isEmpty();
+	}
+
+	/**
+	 * Checks if a jar or directory has an index. Classes in locations that are not covered are not in the index.
+	 * @param location The location of the jar or directory, such as the {@link java.security.CodeSource} location of a class
+	 * @return True if the location contains an index
+	 */
+	public boolean covers(URL location) {
+		String url = location.toString();
+		return roots.contains(url) || roots.contains(url.endsWith("/") ? url : url + "/");
+	}
+
+	/**
+	 * @param kind The kind of entries, such as {@link #MOD}
+	 * @return The names of the indexed classes of the kind
+	 */
+	public Set<String> getClassNames(String kind) {
+		return Collections.unmodifiableSet(classNames.getOrDefault(kind, Collections.emptySet()));
+	}
+
+	/**
+	 * Loads the indexed classes of a kind, without initializing them.
+	 * @param kind The kind of entries, such as {@link #MOD}
+	 * @return The indexed classes of the kind
+	 * @throws NovaException If an indexed class does not exist
+	 */
+	public Set<Class<?>> getClasses(String kind) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		for (String className : getClassNames(kind)) {
+			try {
+				classes.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException e) {
+				throw new NovaException("Indexed class " + className + " does not exist", e);
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * Looks up the annotated fields of the indexed {@link #STORED}, {@link #SYNC} and {@link #CONFIG} classes,
+	 * so they are cached before the classes are first saved, synced or configured.
+	 * Classes that cannot be loaded are skipped.
+	 */
+	public void prewarm() {
+		fieldAnnotations.forEach((kind, annotation) -> {
+			for (String className : getClassNames(kind)) {
+				try {
+					ReflectionUtil.annotatedFields(annotation, Class.forName(className, false, classLoader));
+				} catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+					// The class is looked up again when it is used, which reports the error.
+				}
+			}
+		});
+	}
+}
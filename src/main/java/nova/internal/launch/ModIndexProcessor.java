@@ -0,0 +1,80 @@
+package nova.internal.launch;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the {@link ModIndex} of the classes being compiled.
+ *
+ * The processor is registered as a service in the NOVA jar, so it runs automatically when a mod is compiled against NOVA.
+ * Scala sources are not seen by annotation processors, so Scala mods still have to be found by scanning.
+ */
+public class ModIndexProcessor extends AbstractProcessor {
+
+	private static final Map<String, String> kinds = new LinkedHashMap<>();
+
+	static {
+		kinds.put("nova.core.loader.NovaMod", ModIndex.MOD);
+		kinds.put("nova.core.retention.Stored", ModIndex.STORED);
+		kinds.put("nova.core.network.Sync", ModIndex.SYNC);
+		kinds.put("nova.core.config.Config", ModIndex.CONFIG);
+	}
+
+	private final ModIndex index = new ModIndex(null);
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return new HashSet<>(kinds.keySet());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			String kind = kinds.get(annotation.getQualifiedName().toString());
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				Element type = element.getKind() == ElementKind.FIELD ? element.getEnclosingElement() : element;
+				if (type instanceof TypeElement) {
+					index.add(kind, processingEnv.getElementUtils().getBinaryName((TypeElement) type).toString());
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !index.isEmpty()) {
+			write();
+		}
+		return false;
+	}
+
+	private void write() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ModIndex.LOCATION);
+			try (Writer writer = file.openWriter()) {
+				for (String kind : kinds.values()) {
+					for (String className : index.getClassNames(kind)) {
+						writer.write(kind + " " + className + "\n");
+					}
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + ModIndex.LOCATION + ": " + e);
+		}
+	}
+}
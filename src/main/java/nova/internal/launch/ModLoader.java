@@ -4,22 +4,26 @@ import nova.bootstrap.DependencyInjectionEntryPoint;
 import nova.core.game.Game;
 import nova.core.loader.Loadable;
 import nova.core.util.exception.NovaException;
+import se.jbee.inject.Dependency;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * @author Calclavia
@@ -48,8 +52,31 @@ public class ModLoader<ANNOTATION extends Annotation> implements Loadable {
 	 */
 	protected Map<ANNOTATION, Loadable> mods;
 
+	/**
+	 * The mods, ordered so that each mod comes after its dependencies
+	 */
 	protected List<Loadable> orderedMods;
 
+	/**
+	 * The mods each mod depends on
+	 */
+	protected Map<Loadable, List<Loadable>> modDependencies;
+
+	/**
+	 * The dependency to resolve from the injector, by type
+	 */
+	private static final ClassValue<Dependency<?>> dependencies = new ClassValue<Dependency<?>>() {
+		@Override
+		protected Dependency<?> computeValue(Class<?> type) {
+			return Dependency.dependency(type);
+		}
+	};
+
+	/**
+	 * The number of mods that may run a load phase at the same time
+	 */
+	private int parallelism = 1;
+
 	public ModLoader(Class<ANNOTATION> annotationType, DependencyInjectionEntryPoint diep, Set<Class<?>> modClasses) {
 		this.diep = diep;
 		this.annotationType = annotationType;
@@ -66,40 +93,53 @@ public class ModLoader<ANNOTATION extends Annotation> implements Loadable {
 		/**
 		 * Find Scala Singleton Classes
 		 */
-		scalaClasses = modClasses.stream()
+		scalaClasses = new HashMap<>();
+		modClasses.stream()
 			.filter(c -> !Loadable.class.isAssignableFrom(c))
-			.filter(c -> {
-				try {
-					Class.forName((c.getCanonicalName() + "$"));
-					return true;
-				} catch (Exception e) {
-					return false;
-				}
-			})
-			.collect(Collectors.toMap(c -> c.getAnnotation(annotationType),
-					c -> {
-						try {
-							return Class.forName(c.getCanonicalName() + "$");
-						} catch (Exception e) {
-							throw new ExceptionInInitializerError("Failed to load NOVA mod: " + c);
-						}
-					}
-				)
-			);
+			.filter(c -> c.getAnnotation(annotationType) != null)
+			.forEach(c -> findScalaModule(c).ifPresent(module -> scalaClasses.put(c.getAnnotation(annotationType), module)));
 	}
 
-	public <T> T makeObjectWithDep(Class<T> classToConstruct) throws InstantiationException, IllegalAccessException, InvocationTargetException {
-		Stream<Constructor<?>> candidates = Arrays.stream(classToConstruct.getConstructors());
+	/**
+	 * Finds the singleton class a Scala object is compiled to, without initializing it.
+	 * @param c The class annotated as a mod
+	 * @return The singleton class, if the mod is a Scala object
+	 */
+	private static Optional<Class<?>> findScalaModule(Class<?> c) {
+		try {
+			return Optional.of(Class.forName(c.getName() + "$", false, c.getClassLoader()));
+		} catch (ClassNotFoundException | LinkageError e) {
+			return Optional.empty();
+		}
+	}
 
-		//get constructor with most parameters.
-		Optional<Constructor<?>> ocons = candidates.max(Comparator.comparingInt((constructor) -> constructor.getParameterTypes().length));
+	/**
+	 * Resolves a dependency from the injector.
+	 * The injector is asked every time, so the scope of each binding decides whether instances are shared.
+	 * @param type The type of the dependency
+	 * @return The dependency
+	 */
+	protected Object resolve(Class<?> type) {
+		return diep.getInjector().get().resolve(dependencies.get(type));
+	}
 
-		Constructor<?> cons = ocons.get();
-		Object[] parameters = Arrays.stream(cons.getParameterTypes())
-			.map(clazz -> (Object) diep.getInjector().get().resolve(se.jbee.inject.Dependency.dependency(clazz)))
-			.collect(Collectors.toList()).toArray();
+	/**
+	 * Resolves a dependency from the injector, if the injector can provide it.
+	 * @param type The type of the dependency
+	 * @return The dependency, or empty if it cannot be resolved
+	 */
+	protected Optional<Object> resolveOptional(Class<?> type) {
+		try {
+			return Optional.ofNullable(resolve(type));
+		} catch (RuntimeException e) {
+			return Optional.empty();
+		}
+	}
 
-		return (T) cons.newInstance(parameters);
+	public <T> T makeObjectWithDep(Class<T> classToConstruct) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+		InjectionPlan plan = InjectionPlan.of(classToConstruct);
+		Object[] parameters = diep.getTimeline().record("inject", classToConstruct.getName(), () -> plan.resolveParameters(this::resolve));
+		return (T) plan.construct(parameters);
 	}
 
 	public void load() {
@@ -111,14 +151,14 @@ public class ModLoader<ANNOTATION extends Annotation> implements Loadable {
 		mods.putAll(
 			javaClasses.entrySet().stream()
 				.collect(Collectors.toMap(Map.Entry::getKey,
-						entry -> {
+						entry -> diep.getTimeline().record("construct", entry.getValue().getName(), () -> {
 							try {
 								return makeObjectWithDep(entry.getValue());
 							} catch (Exception ex) {
 								System.out.println("Failed to load NOVA Java mod: " + entry);
 								throw new ExceptionInInitializerError(ex);
 							}
-						}
+						})
 					)
 				)
 		);
@@ -129,74 +169,148 @@ public class ModLoader<ANNOTATION extends Annotation> implements Loadable {
 		mods.putAll(
 			scalaClasses.entrySet().stream()
 				.collect(Collectors.toMap(Map.Entry::getKey,
-						entry -> {
+						entry -> diep.getTimeline().record("construct", entry.getValue().getName(), () -> {
 							try {
 								Field field = entry.getValue().getField("MODULE$");
 								Loadable loadable = (Loadable) field.get(null);
 
 								//Inject dependencies to Scala singleton variables
-								//TODO: Does not work recursively for all hierarchy
-								Field[] fields = loadable.getClass().getDeclaredFields();
-
-								for (Field f : fields) {
-									f.setAccessible(true);
-									if (f.get(loadable) == null) {
-										try {
-											f.set(loadable, diep.getInjector().get().resolve(se.jbee.inject.Dependency.dependency(f.getType())));
-										} catch (Exception e) {
-										}
-									}
-									f.setAccessible(false);
-								}
+								diep.getTimeline().record("inject", entry.getValue().getName(), () ->
+									InjectionPlan.of(loadable.getClass()).injectFields(loadable, this::resolveOptional)
+								);
 
 								return loadable;
 							} catch (Exception ex) {
 								System.out.println("Failed to load NOVA Scala mod: " + entry);
 								throw new ExceptionInInitializerError(ex);
 							}
-						}
+						})
 					)
 				)
 		);
 
-		orderedMods = new ArrayList<>();
-		orderedMods.addAll(mods.values());
+		sortMods();
+	}
+
+	/**
+	 * Gets the mods a mod has to be loaded after. Mods that are not loaded should not be returned.
+	 * @param mod The annotation of the mod
+	 * @return The annotations of the dependencies of the mod
+	 */
+	protected Set<ANNOTATION> getDependencies(ANNOTATION mod) {
+		return Collections.emptySet();
+	}
+
+	/**
+	 * Builds the dependency graph of the loaded mods, and orders the mods so that each mod comes after its dependencies.
+	 * @throws NovaException If the dependencies form a cycle
+	 */
+	protected void sortMods() {
+		Map<ANNOTATION, List<ANNOTATION>> graph = new LinkedHashMap<>();
+		mods.keySet().forEach(mod -> graph.put(mod, new ArrayList<>(getDependencies(mod))));
+
+		modDependencies = new IdentityHashMap<>();
+		graph.forEach((mod, dependencies) ->
+				modDependencies.put(mods.get(mod), dependencies.stream().map(mods::get).collect(Collectors.toList()))
+		);
+
+		List<ANNOTATION> order = new ArrayList<>();
+		Map<ANNOTATION, Boolean> visited = new HashMap<>();
+		List<ANNOTATION> path = new ArrayList<>();
+		graph.keySet().forEach(mod -> visit(mod, graph, visited, path, order));
+
+		orderedMods = order.stream().map(mods::get).collect(Collectors.toList());
+	}
+
+	/**
+	 * Depth first search adding each mod after its dependencies.
+	 * Visited maps a mod to false while its dependencies are visited, and to true once it is ordered.
+	 */
+	private void visit(ANNOTATION mod, Map<ANNOTATION, List<ANNOTATION>> graph, Map<ANNOTATION, Boolean> visited, List<ANNOTATION> path, List<ANNOTATION> order) {
+		Boolean state = visited.get(mod);
+		if (state == Boolean.TRUE) {
+			return;
+		}
+
+		path.add(mod);
+		if (state == Boolean.FALSE) {
+			List<ANNOTATION> cycle = path.subList(path.indexOf(mod), path.size());
+			throw new NovaException("Mods have cyclic dependencies: " + cycle.stream().map(mods::get).map(Object::getClass).map(Class::getName).collect(Collectors.joining(" -> ")));
+		}
+
+		visited.put(mod, false);
+		graph.getOrDefault(mod, Collections.emptyList()).forEach(dependency -> visit(dependency, graph, visited, path, order));
+		visited.put(mod, true);
+		order.add(mod);
+		path.remove(path.size() - 1);
+	}
+
+	/**
+	 * Sets the number of mods that may run a load phase at the same time.
+	 * Mods that do not depend on each other run concurrently, so they must not rely on the order other mods are loaded in.
+	 * Mods are loaded one at a time by default.
+	 * @param parallelism The number of threads to load mods with
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Runs a load phase for every mod. A mod only starts the phase once all its dependencies have finished it.
+	 */
+	protected void runPhase(String phase, Consumer<Loadable> action) {
+		diep.getTimeline().record("phase", phase, () -> runPhaseTasks(phase, action));
+	}
+
+	private void runPhaseTasks(String phase, Consumer<Loadable> action) {
+		if (parallelism == 1 || orderedMods.size() < 2) {
+			orderedMods.forEach(mod -> runPhase(phase, action, mod));
+			return;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			Map<Loadable, CompletableFuture<Void>> tasks = new IdentityHashMap<>();
+			for (Loadable mod : orderedMods) {
+				CompletableFuture<?>[] dependencies = modDependencies.get(mod).stream().map(tasks::get).toArray(CompletableFuture[]::new);
+				tasks.put(mod, CompletableFuture.allOf(dependencies).thenRunAsync(() -> runPhase(phase, action, mod), pool));
+			}
+			CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture<?>[tasks.size()])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof NovaException) {
+				throw (NovaException) e.getCause();
+			}
+			throw new NovaException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private void runPhase(String phase, Consumer<Loadable> action, Loadable mod) {
+		try {
+			diep.getTimeline().record(phase, mod.getClass().getName(), () -> action.accept(mod));
+		} catch (Throwable t) {
+			Game.logger().error("Critical error caught during " + phase + " phase", t);
+			throw new NovaException(t);
+		}
 	}
 
 	@Override
 	public void preInit() {
-		orderedMods.stream().forEachOrdered(mod -> {
-			try {
-				mod.preInit();
-			} catch (Throwable t) {
-				Game.logger().error("Critical error caught during pre initialization phase", t);
-				throw new NovaException(t);
-			}
-		});
+		runPhase("pre initialization", Loadable::preInit);
 	}
 
 	@Override
 	public void init() {
-		orderedMods.stream().forEachOrdered(mod -> {
-			try {
-				mod.init();
-			} catch (Throwable t) {
-				Game.logger().error("Critical error caught during initialization phase", t);
-				throw new NovaException(t);
-			}
-		});
+		runPhase("initialization", Loadable::init);
 	}
 
 	@Override
 	public void postInit() {
-		orderedMods.stream().forEachOrdered(mod -> {
-			try {
-				mod.postInit();
-			} catch (Throwable t) {
-				Game.logger().error("Critical error caught during post initialization phase", t);
-				throw new NovaException(t);
-			}
-		});
+		runPhase("post initialization", Loadable::postInit);
 	}
 
 	public Set<ANNOTATION> getLoadedMods() {
@@ -3,13 +3,16 @@ package nova.internal.launch;
 import nova.bootstrap.DependencyInjectionEntryPoint;
 import nova.core.deps.Dependencies;
 import nova.core.deps.Dependency;
+import nova.core.deps.DependencyResolver;
 import nova.core.deps.MavenDependency;
 import nova.core.game.Game;
 import nova.core.loader.NovaMod;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,44 +51,55 @@ public class NovaLauncher extends ModLoader<NovaMod> {
 			.forEach(diep::install);
 	}
 
+	/**
+	 * Creates NovaLauncher with the mods listed in the {@link ModIndex} written at build time, instead of scanning for them.
+	 * Only mods in jars and directories {@link ModIndex#covers(java.net.URL) covered} by the index are found,
+	 * the classes found by scanning the other locations should be passed as scanned mods.
+	 * @param diep is required as we are installing additional modules to it.
+	 * @param index The mod index, see {@link ModIndex#read(ClassLoader)}
+	 * @param scannedClasses The mod classes found by scanning the locations not covered by the index
+	 */
+	public NovaLauncher(DependencyInjectionEntryPoint diep, ModIndex index, Set<Class<?>> scannedClasses) {
+		this(diep, merge(index.getClasses(ModIndex.MOD), scannedClasses));
+		diep.getTimeline().record("index", "prewarm", index::prewarm);
+	}
+
+	private static Set<Class<?>> merge(Set<Class<?>> indexed, Set<Class<?>> scanned) {
+		Set<Class<?>> classes = new HashSet<>(indexed);
+		classes.addAll(scanned);
+		return classes;
+	}
+
 	@Override
 	public void load() {
 		super.load();
-
-		Collections.sort(orderedMods, (o1, o2) -> {
-			NovaMod anno1 = o1.getClass().getAnnotation(NovaMod.class);
-			NovaMod anno2 = o2.getClass().getAnnotation(NovaMod.class);
-
-			// Split string by @ and versions
-			Map<String, String> loadAfter1 = dependencyToMap(anno1.dependencies());
-
-			// TODO: Compare version requirements.
-			if (loadAfter1.entrySet().stream().anyMatch(entry -> anno2.id().equals(entry.getKey()))) {
-				return 1;
-			}
-
-			// Split string by @ and versions
-			Map<String, String> loadAfter2 = dependencyToMap(anno2.dependencies());
-
-			if (loadAfter2.entrySet().stream().anyMatch(entry -> anno1.id().equals(entry.getKey()))) {
-				return -1;
-			}
-
-			return 0;
-		});
 		Game.logger().info("NOVA Mods Loaded: " + mods.size());
 	}
 
+	/**
+	 * Mods are loaded after the mods listed in {@link NovaMod#dependencies()}. Dependencies that are not installed are ignored.
+	 */
+	@Override
+	protected Set<NovaMod> getDependencies(NovaMod mod) {
+		// TODO: Compare version requirements.
+		Set<String> ids = dependencyToMap(mod.dependencies()).keySet();
+		return mods.keySet().stream()
+			.filter(other -> ids.contains(other.id()))
+			.collect(Collectors.toSet());
+	}
+
 	public Map<String, String> dependencyToMap(String[] dependencies) {
 		return Arrays.stream(dependencies)
-			.map(s -> s.split("@", 1))
+			.map(s -> s.split("@", 2))
 			.collect(Collectors.toMap(s -> s[0], s -> s.length > 1 ? s[1] : ""));
 	}
 
 	@Override
 	public void preInit() {
 		// Test integrity of the GuiFactory
-		Game.guiComponent().validate();
+		if (!diep.isServerOnly()) {
+			Game.guiComponent().validate();
+		}
 		super.preInit();
 	}
 
@@ -96,6 +110,22 @@ public class NovaLauncher extends ModLoader<NovaMod> {
 		return neededDeps;
 	}
 
+	/**
+	 * Downloads the dependencies of all mods that are not cached yet, concurrently.
+	 * Must be called after {@link #generateDependencies()}.
+	 * @param resolver The resolver to download the dependencies with
+	 * @return The files of the dependencies of each mod
+	 */
+	public Map<NovaMod, List<File>> resolveDependencies(DependencyResolver resolver) {
+		Map<MavenDependency, File> files = resolver.resolve(getNeededDeps().values().stream()
+			.flatMap(List::stream)
+			.collect(Collectors.toList()));
+
+		Map<NovaMod, List<File>> modFiles = new HashMap<>();
+		getNeededDeps().forEach((mod, deps) -> modFiles.put(mod, deps.stream().map(files::get).collect(Collectors.toList())));
+		return modFiles;
+	}
+
 	/**
 	 * Get the dependencies. Separated from preInit due to issues with ordering in case mods need to download mods before the preInit method is called.
 	 * The wrapper just needs to call this method right before it downloads the dependencies.
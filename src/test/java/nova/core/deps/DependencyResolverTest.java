@@ -0,0 +1,92 @@
+package nova.core.deps;
+
+import com.google.common.hash.Hashing;
+import nova.core.util.exception.NovaException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DependencyResolverTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File repo;
+	private File cache;
+
+	@Before
+	public void setUp() throws Exception {
+		repo = folder.newFolder("repo");
+		cache = folder.newFolder("cache");
+	}
+
+	private MavenDependency publish(String artifact, String content, String checksum) throws Exception {
+		MavenDependency dependency = new MavenDependency(repo.toURI().toString(), "com.example", artifact, "1.0", "", "jar");
+		File file = new File(repo, dependency.getPath());
+		file.getParentFile().mkdirs();
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		Files.write(file.toPath(), bytes);
+		if (checksum != null) {
+			Files.write(new File(file.getPath() + ".sha1").toPath(), checksum.getBytes(StandardCharsets.US_ASCII));
+		}
+		return dependency;
+	}
+
+	private static String sha1(String content) {
+		return Hashing.sha1().hashString(content, StandardCharsets.UTF_8).toString();
+	}
+
+	@Test
+	public void testPath() {
+		MavenDependency dependency = new MavenDependency("http://example.com/maven", "com.example", "lib", "1.0", "dev", "jar");
+		assertThat(dependency.getPath()).isEqualTo("com/example/lib/1.0/lib-1.0-dev.jar");
+		assertThat(dependency.getDownloadURL().toString()).isEqualTo("http://example.com/maven/com/example/lib/1.0/lib-1.0-dev.jar");
+	}
+
+	@Test
+	public void testResolve() throws Exception {
+		MavenDependency first = publish("first", "first content", sha1("first content") + "  first-1.0.jar\n");
+		MavenDependency second = publish("second", "second content", sha1("second content"));
+
+		DependencyResolver resolver = new DependencyResolver(cache, 2);
+		Map<MavenDependency, File> files = resolver.resolve(Arrays.asList(first, second, first));
+		assertThat(files).hasSize(2);
+		assertThat(new String(Files.readAllBytes(files.get(first).toPath()), StandardCharsets.UTF_8)).isEqualTo("first content");
+		assertThat(files.get(second)).isEqualTo(resolver.getCacheFile(second));
+
+		// Cached artifacts are not downloaded again.
+		new File(repo, first.getPath()).delete();
+		assertThat(resolver.fetch(first).get()).isEqualTo(files.get(first));
+	}
+
+	@Test
+	public void testChecksumMismatch() throws Exception {
+		MavenDependency dependency = publish("broken", "content", sha1("other content"));
+		DependencyResolver resolver = new DependencyResolver(cache);
+
+		assertThatThrownBy(() -> resolver.resolve(Collections.singletonList(dependency))).isInstanceOf(NovaException.class);
+		assertThat(resolver.getCacheFile(dependency)).doesNotExist();
+	}
+
+	@Test
+	public void testMissingChecksum() throws Exception {
+		MavenDependency dependency = publish("unsigned", "content", null);
+		DependencyResolver resolver = new DependencyResolver(cache);
+
+		assertThatThrownBy(() -> resolver.resolve(Collections.singletonList(dependency))).isInstanceOf(NovaException.class);
+
+		resolver.setRequireChecksums(false);
+		assertThat(resolver.resolve(Collections.singletonList(dependency)).get(dependency)).exists();
+	}
+}
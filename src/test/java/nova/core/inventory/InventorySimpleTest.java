@@ -0,0 +1,48 @@
+package nova.core.inventory;
+
+import nova.core.item.Item;
+import nova.core.retention.Data;
+import nova.core.retention.Storable;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InventorySimpleTest {
+
+	public static class TestItem extends Item implements Storable {
+		@Override
+		public String getID() {
+			return "test";
+		}
+
+		@Override
+		public Item clone() {
+			return new TestItem().setCount(count());
+		}
+
+		@Override
+		public void save(Data data) {
+			data.put("count", count());
+		}
+	}
+
+	@Test
+	public void testChangeByAmount() {
+		InventorySimple inventory = new InventorySimple(1);
+		assertThat(inventory.set(0, new TestItem().setCount(10))).isTrue();
+		inventory.clearChanged();
+
+		assertThat(inventory.add(0, new TestItem().setCount(5))).isEqualTo(0);
+		assertThat(inventory.hasChanged()).isTrue();
+		inventory.clearChanged();
+
+		Optional<Item> removed = inventory.remove(0, 3);
+		assertThat(removed.get().count()).isEqualTo(3);
+		assertThat(inventory.hasChanged()).isTrue();
+
+		Data data = Data.serialize(inventory);
+		assertThat(data.<Data>get("0").getInt("count")).isEqualTo(12);
+	}
+}
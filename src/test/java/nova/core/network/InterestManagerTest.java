@@ -0,0 +1,83 @@
+package nova.core.network;
+
+import nova.core.component.transform.EntityTransform;
+import nova.core.entity.Entity;
+import nova.core.entity.component.Player;
+import nova.core.inventory.component.InventoryPlayer;
+import nova.core.util.transform.vector.Vector3d;
+import nova.testutils.FakeWorld;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InterestManagerTest {
+
+	FakeWorld world;
+	InterestManager interest;
+
+	@Before
+	public void setUp() {
+		world = new FakeWorld();
+		interest = new InterestManager();
+	}
+
+	Entity player(String name, Vector3d position) {
+		Entity entity = new Entity() {
+			@Override
+			public String getID() {
+				return "player";
+			}
+		};
+		EntityTransform transform = new EntityTransform();
+		transform.setWorld(world);
+		entity.add(transform);
+		entity.add(new Player() {
+			@Override
+			public String getUsername() {
+				return name;
+			}
+
+			@Override
+			public InventoryPlayer getInventory() {
+				return null;
+			}
+		});
+		entity.setPosition(position);
+		return entity;
+	}
+
+	@Test
+	public void testViewDistance() {
+		Entity near = player("near", new Vector3d(10, 64, 10));
+		Entity far = player("far", new Vector3d(500, 64, 500));
+		interest.update(near, 64);
+		interest.update(far, 64);
+
+		assertThat(interest.getRecipients(world, new Vector3d(0, 64, 0), -1)).containsOnly(near.get(Player.class));
+	}
+
+	@Test
+	public void testCustomRadius() {
+		Entity player = player("player", new Vector3d(40, 64, 0));
+		interest.update(player, 128);
+
+		assertThat(interest.getRecipients(world, new Vector3d(0, 64, 0), 16)).isEmpty();
+		assertThat(interest.getRecipients(world, new Vector3d(0, 64, 0), 48)).containsOnly(player.get(Player.class));
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+		Entity player = player("player", new Vector3d(0, 64, 0));
+		interest.update(player, 32);
+		assertThat(interest.getRecipients(world, new Vector3d(0, 64, 0), -1)).hasSize(1);
+
+		player.setPosition(new Vector3d(-300, 64, 200));
+		interest.update(player, 32);
+		assertThat(interest.getRecipients(world, new Vector3d(0, 64, 0), -1)).isEmpty();
+		assertThat(interest.getRecipients(world, new Vector3d(-290, 64, 190), -1)).hasSize(1);
+
+		interest.remove(player.get(Player.class));
+		assertThat(interest.getRecipients(world, new Vector3d(-290, 64, 190), -1)).isEmpty();
+	}
+}
@@ -0,0 +1,112 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.inventory.component.InventoryPlayer;
+import nova.core.network.SyncSchedulerTest.Progress;
+import nova.testutils.FakePacket;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetworkManagerTest {
+
+	Player player(String name) {
+		return new Player() {
+			@Override
+			public String getUsername() {
+				return name;
+			}
+
+			@Override
+			public InventoryPlayer getInventory() {
+				return null;
+			}
+		};
+	}
+
+	@Test
+	public void testSyncToPlayers() {
+		List<Player> received = new ArrayList<>();
+		List<Packet> packets = new ArrayList<>();
+		NetworkManager network = new NetworkManager() {
+			@Override
+			public Packet newPacket() {
+				return new FakePacket();
+			}
+
+			@Override
+			public void sendPacket(PacketHandler sender, Packet packet) {
+				throw new AssertionError("Targeted sync sent to everyone");
+			}
+
+			@Override
+			public void sendPacket(PacketHandler sender, Packet packet, Player player) {
+				received.add(player);
+				packets.add(packet);
+			}
+
+			@Override
+			public void sync(int id, PacketHandler sender) {
+				throw new AssertionError("Targeted sync sent to everyone");
+			}
+
+			@Override
+			public void sendChat(Player player, String message) {
+
+			}
+
+			@Override
+			public boolean isServer() {
+				return true;
+			}
+		};
+
+		Player a = player("a");
+		Player b = player("b");
+		network.sync(0, new Progress(), Arrays.asList(a, b));
+
+		assertThat(received).containsExactly(a, b);
+		// The packet is written once and shared.
+		assertThat(packets.get(0)).isSameAs(packets.get(1));
+	}
+
+	@Test
+	public void testSyncToPlayersWithoutTargetedSend() {
+		List<Packet> packets = new ArrayList<>();
+		NetworkManager network = new NetworkManager() {
+			@Override
+			public Packet newPacket() {
+				return new FakePacket();
+			}
+
+			@Override
+			public void sendPacket(PacketHandler sender, Packet packet) {
+				packets.add(packet);
+			}
+
+			@Override
+			public void sync(int id, PacketHandler sender) {
+				throw new AssertionError("Handler written again");
+			}
+
+			@Override
+			public void sendChat(Player player, String message) {
+
+			}
+
+			@Override
+			public boolean isServer() {
+				return true;
+			}
+		};
+
+		network.sync(0, new Progress(), Arrays.asList(player("a"), player("b")));
+
+		// Falls back to a single send to everyone.
+		assertThat(packets).hasSize(1);
+	}
+}
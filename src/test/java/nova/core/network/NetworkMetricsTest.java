@@ -0,0 +1,72 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.inventory.component.InventoryPlayer;
+import nova.core.network.SyncSchedulerTest.Inventory;
+import nova.core.network.SyncSchedulerTest.Progress;
+import nova.core.network.SyncSchedulerTest.RecordingNetworkManager;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetworkMetricsTest {
+
+	Player player(String name) {
+		return new Player() {
+			@Override
+			public String getUsername() {
+				return name;
+			}
+
+			@Override
+			public InventoryPlayer getInventory() {
+				return null;
+			}
+		};
+	}
+
+	@Test
+	public void testBroadcastCounts() {
+		RecordingNetworkManager network = new RecordingNetworkManager();
+		List<Player> players = Arrays.asList(player("a"), player("b"), player("c"));
+
+		network.sync(0, new Progress(), players);
+		network.sync(0, new Inventory(), players.subList(0, 1));
+
+		NetworkMetrics.HandlerStats progress = network.metrics().get(Progress.class).get();
+		assertThat(progress.sent.packets()).isEqualTo(3);
+		assertThat(progress.sent.bytes()).isEqualTo(3 * 8);
+		assertThat(progress.sentById.get(0).bytes()).isEqualTo(3 * 8);
+		assertThat(progress.writeTime.count()).isEqualTo(1);
+
+		assertThat(network.metrics().topTalkers(2)).extracting("type").containsExactly(Progress.class, Inventory.class);
+		assertThat(network.metrics().report(1)).contains(Progress.class.getName()).doesNotContain(Inventory.class.getName());
+	}
+
+	@Test
+	public void testUnknownSize() {
+		NetworkMetrics metrics = new NetworkMetrics();
+		metrics.recordSent(new Progress(), 0, -1, 2);
+		metrics.recordSent(new Progress(), 0, 8, 1);
+
+		NetworkMetrics.HandlerStats progress = metrics.get(Progress.class).get();
+		assertThat(progress.sent.packets()).isEqualTo(3);
+		assertThat(progress.sent.bytes()).isEqualTo(8);
+	}
+
+	@Test
+	public void testHistogram() {
+		NetworkMetrics.Histogram histogram = new NetworkMetrics.Histogram();
+		for (int i = 0; i < 99; i++) {
+			histogram.record(100);
+		}
+		histogram.record(1_000_000);
+
+		assertThat(histogram.count()).isEqualTo(100);
+		assertThat(histogram.percentile(0.5)).isEqualTo(127);
+		assertThat(histogram.percentile(1)).isGreaterThanOrEqualTo(1_000_000);
+	}
+}
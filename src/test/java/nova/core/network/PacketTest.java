@@ -0,0 +1,73 @@
+package nova.core.network;
+
+import nova.core.retention.Data;
+import nova.testutils.FakePacket;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PacketTest {
+
+	@Test
+	public void testArrays() {
+		Packet packet = new FakePacket();
+		byte[] bytes = { 1, 2, 3 };
+		int[] ints = new int[81];
+		Arrays.setAll(ints, i -> i * 1000);
+		long[] longs = { Long.MIN_VALUE, 0, Long.MAX_VALUE };
+		float[] floats = { 0.5f, -1.5f };
+		double[] doubles = {};
+
+		packet.write(bytes).write(ints).write(longs).write(floats).write(doubles);
+
+		assertThat(packet.read(byte[].class)).containsExactly(bytes);
+		assertThat(packet.read(int[].class)).containsExactly(ints);
+		assertThat(packet.read(long[].class)).containsExactly(longs);
+		assertThat(packet.read(float[].class)).containsExactly(floats);
+		assertThat(packet.read(double[].class)).isEmpty();
+	}
+
+	@Test
+	public void testHomogeneousCollection() {
+		Packet packet = new FakePacket();
+		packet.write(Arrays.asList(1, 2, 3));
+
+		// Size, a single type and three ints.
+		assertThat(packet.size()).isEqualTo(4 + 2 + 3 * 4);
+		assertThat(packet.<Integer>readList()).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void testMixedCollection() {
+		Packet packet = new FakePacket();
+		packet.write(new HashSet<>(Arrays.asList(1, "two", 3.0)));
+		packet.write(Arrays.asList());
+
+		Set<Object> set = packet.readSet();
+		List<Object> list = packet.readList();
+		assertThat(set).containsOnly(1, "two", 3.0);
+		assertThat(list).isEmpty();
+	}
+
+	@Test
+	public void testDataWithArrays() {
+		Data data = new Data();
+		data.className = "test";
+		data.put("ints", new int[] { 1, 2, 3 });
+		data.put("doubles", new double[] { 0.25 });
+		data.put("list", Arrays.asList("a", "b"));
+
+		Packet packet = new FakePacket();
+		packet.writeData(data);
+		Data read = packet.readData();
+
+		assertThat(read.<int[]>get("ints")).containsExactly(1, 2, 3);
+		assertThat(read.<double[]>get("doubles")).containsExactly(0.25);
+		assertThat(read.<List<String>>get("list")).containsExactly("a", "b");
+	}
+}
@@ -0,0 +1,159 @@
+package nova.core.network;
+
+import nova.core.entity.component.Player;
+import nova.core.inventory.component.InventoryPlayer;
+import nova.testutils.FakePacket;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SyncSchedulerTest {
+
+	RecordingNetworkManager network;
+	SyncScheduler scheduler;
+	Player player;
+
+	@Before
+	public void setUp() {
+		network = new RecordingNetworkManager();
+		scheduler = network.scheduler();
+		player = new Player() {
+			@Override
+			public String getUsername() {
+				return "player";
+			}
+
+			@Override
+			public InventoryPlayer getInventory() {
+				return null;
+			}
+		};
+	}
+
+	@Test
+	public void testPriorityOrder() {
+		Progress low = new Progress();
+		Inventory high = new Inventory();
+		scheduler.queue(0, low, Collections.singleton(player));
+		scheduler.queue(0, high, Collections.singleton(player));
+		scheduler.tick(0);
+
+		assertThat(network.sent).containsExactly(high, low);
+	}
+
+	@Test
+	public void testBudgetDefers() {
+		scheduler.setBytesPerTick(8);
+		Progress first = new Progress();
+		Progress second = new Progress();
+		scheduler.queue(0, first, Collections.singleton(player));
+		scheduler.queue(0, second, Collections.singleton(player));
+
+		scheduler.tick(0);
+		assertThat(network.sent).containsExactly(first);
+		assertThat(scheduler.pendingCount()).isEqualTo(1);
+
+		scheduler.tick(1000);
+		assertThat(network.sent).containsExactly(first, second);
+		assertThat(scheduler.pendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testNoWriteWithoutBudget() {
+		int size = network.writePacket(0, new Progress()).size();
+		scheduler.setBytesPerTick(size + size / 2);
+		Progress first = new Progress();
+		Progress second = new Progress();
+		scheduler.queue(0, first, Collections.singleton(player));
+		scheduler.queue(0, second, Collections.singleton(player));
+		network.written = 0;
+
+		// The second packet does not fit the rest of the budget, so it is not written at all.
+		scheduler.tick(0);
+		assertThat(network.sent).containsExactly(first);
+		assertThat(network.written).isEqualTo(1);
+
+		scheduler.tick(1000);
+		assertThat(network.sent).containsExactly(first, second);
+		assertThat(network.written).isEqualTo(2);
+	}
+
+	@Test
+	public void testRateAndCoalescing() {
+		Progress progress = new Progress();
+		scheduler.queue(0, progress, Collections.singleton(player));
+		scheduler.tick(0);
+
+		// Rate is 2 per second, so the next update has to wait 500 ms.
+		scheduler.queue(0, progress, Collections.singleton(player));
+		scheduler.queue(0, progress, Collections.singleton(player));
+		scheduler.tick(100);
+		assertThat(network.sent).hasSize(1);
+
+		scheduler.tick(600);
+		assertThat(network.sent).hasSize(2);
+		assertThat(scheduler.pendingCount()).isEqualTo(0);
+	}
+
+	public static class Progress implements PacketHandler {
+		@Sync(rate = 2, priority = Sync.PRIORITY_LOW)
+		public double progress = 0.5;
+	}
+
+	public static class Inventory implements PacketHandler {
+		@Sync(priority = Sync.PRIORITY_HIGH)
+		public int slot = 1;
+	}
+
+	public static class RecordingNetworkManager extends NetworkManager {
+		List<PacketHandler> sent = new ArrayList<>();
+		int written;
+
+		@Override
+		public Packet writePacket(int id, PacketHandler sender) {
+			written++;
+			return super.writePacket(id, sender);
+		}
+
+		@Override
+		public Packet newPacket() {
+			return new FakePacket();
+		}
+
+		@Override
+		public void sendPacket(PacketHandler sender, Packet packet) {
+			sent.add(sender);
+		}
+
+		@Override
+		public void sendPacket(PacketHandler sender, Packet packet, Player player) {
+
+		}
+
+		@Override
+		public void sendPacket(PacketHandler sender, Packet packet, Collection<? extends Player> players) {
+			sent.add(sender);
+		}
+
+		@Override
+		public void sync(int id, PacketHandler sender) {
+			sent.add(sender);
+		}
+
+		@Override
+		public void sendChat(Player player, String message) {
+
+		}
+
+		@Override
+		public boolean isServer() {
+			return true;
+		}
+	}
+}
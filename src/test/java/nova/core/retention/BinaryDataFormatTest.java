@@ -0,0 +1,74 @@
+package nova.core.retention;
+
+import nova.core.util.Direction;
+import nova.core.util.transform.vector.Vector3d;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BinaryDataFormatTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Data data = new Data();
+		data.put("boolean", true);
+		data.put("byte", (byte) 1);
+		data.put("short", (short) 2);
+		data.put("int", 3);
+		data.put("long", 4L);
+		data.put("char", 'c');
+		data.put("float", 5.5f);
+		data.put("double", 6.5);
+		data.put("string", "string");
+		data.put("enum", Direction.UP);
+		data.put("vector", new Vector3d(1, 2, 3));
+		data.put("list", Arrays.asList(1, "two", 3L));
+
+		Data read = BinaryDataFormat.instance.decode(BinaryDataFormat.instance.encode(data));
+
+		assertThat(read).isEqualTo(data);
+		assertThat(read.<Data>get("vector").className).isEqualTo(Vector3d.class.getName());
+		assertThat(read.<Direction>getEnum("enum")).isEqualTo(Direction.UP);
+		assertThat(read.<Vector3d>getStorable("vector")).isEqualTo(new Vector3d(1, 2, 3));
+	}
+
+	@Test
+	public void testByteBuffer() throws Exception {
+		Data data = Data.serialize(new Vector3d(1, 2, 3));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+		BinaryDataFormat.instance.write(data, buffer);
+		buffer.flip();
+
+		assertThat(Data.unserialize(BinaryDataFormat.instance.read(buffer))).isEqualTo(new Vector3d(1, 2, 3));
+	}
+
+	@Test
+	public void testArrays() throws Exception {
+		int[] blocks = new int[16 * 16 * 16];
+		Arrays.setAll(blocks, i -> i * 31);
+
+		Data data = new Data();
+		data.put("bytes", new byte[] { 1, -2, 3 });
+		data.put("blocks", blocks);
+		data.put("longs", new long[] { Long.MIN_VALUE, Long.MAX_VALUE });
+		data.put("floats", new float[] { 0.5f });
+		data.put("doubles", new double[0]);
+
+		byte[] encoded = BinaryDataFormat.instance.encode(data);
+		// Stored as one block, rather than a value per element.
+		assertThat(encoded.length).isLessThan(blocks.length * 4 + 128);
+
+		Data read = BinaryDataFormat.instance.decode(encoded);
+		assertThat(read.<byte[]>get("bytes")).containsExactly((byte) 1, (byte) -2, (byte) 3);
+		assertThat(read.<int[]>get("blocks")).containsExactly(blocks);
+		assertThat(read.<long[]>get("longs")).containsExactly(Long.MIN_VALUE, Long.MAX_VALUE);
+		assertThat(read.<float[]>get("floats")).containsExactly(0.5f);
+		assertThat(read.<double[]>get("doubles")).isEmpty();
+
+		Data lazy = BinaryDataFormat.instance.readLazy(encoded);
+		assertThat(lazy.<int[]>get("blocks")).containsExactly(blocks);
+	}
+}
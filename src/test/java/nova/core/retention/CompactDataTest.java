@@ -0,0 +1,175 @@
+package nova.core.retention;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactDataTest {
+
+	public static class Block implements Storable {
+		@Stored
+		int energy;
+		@Stored
+		double temperature;
+		@Stored
+		boolean active;
+		@Stored
+		char symbol;
+		@Stored
+		String name;
+	}
+
+	@Test
+	public void testTypedAccess() {
+		CompactData data = new CompactData();
+		data.putInt("int", 5);
+		data.putDouble("double", 1.5);
+		data.putFloat("float", 2.5f);
+		data.putBoolean("boolean", true);
+		data.putChar("char", 'x');
+		data.putLong("long", Long.MAX_VALUE);
+
+		assertThat(data.getInt("int")).isEqualTo(5);
+		assertThat(data.getLong("int")).isEqualTo(5L);
+		assertThat(data.getDouble("double")).isEqualTo(1.5);
+		assertThat(data.getFloat("float")).isEqualTo(2.5f);
+		assertThat(data.getBoolean("boolean")).isTrue();
+		assertThat(data.getChar("char")).isEqualTo('x');
+		assertThat(data.getLong("long")).isEqualTo(Long.MAX_VALUE);
+
+		// Boxed access keeps the exact type.
+		assertThat(data.<Object>get("int")).isEqualTo(5);
+		assertThat(data.<Object>get("float")).isEqualTo(2.5f);
+		assertThat(data.<Object>get("char")).isEqualTo('x');
+		assertThat(data).hasSize(6);
+	}
+
+	@Test
+	public void testMapBehaviour() {
+		CompactData data = new CompactData();
+		Map<String, Object> expected = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			data.put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+		data.put("string", "value");
+		expected.put("string", "value");
+		for (int i = 0; i < 100; i += 3) {
+			assertThat(data.remove("key" + i)).isEqualTo(i);
+			expected.remove("key" + i);
+		}
+
+		assertThat(data).isEqualTo(expected);
+		assertThat(data.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(data.containsKey("key0")).isFalse();
+		assertThat(data.containsKey("key1")).isTrue();
+		assertThat(data.<Object>get("key0")).isNull();
+
+		Iterator<String> iterator = data.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().startsWith("key")) {
+				iterator.remove();
+			}
+		}
+		assertThat(data.keySet()).containsOnly("string");
+
+		data.entrySet().iterator().next().setValue("changed");
+		assertThat(data.<String>get("string")).isEqualTo("changed");
+		assertThat(data.put("string", 1)).isEqualTo("changed");
+
+		data.clear();
+		assertThat(data).isEmpty();
+	}
+
+	@Test
+	public void testStorable() {
+		Block block = new Block();
+		block.energy = 1000;
+		block.temperature = 295.5;
+		block.active = true;
+		block.symbol = 'B';
+		block.name = "block";
+
+		CompactData data = new CompactData();
+		block.save(data);
+
+		Block loaded = new Block();
+		loaded.load(data);
+		assertThat(loaded.energy).isEqualTo(1000);
+		assertThat(loaded.temperature).isEqualTo(295.5);
+		assertThat(loaded.active).isTrue();
+		assertThat(loaded.symbol).isEqualTo('B');
+		assertThat(loaded.name).isEqualTo("block");
+
+		// Plain data is loaded the same way.
+		Data plain = new Data();
+		plain.putAll((Map<String, Object>) data);
+		Block fromPlain = new Block();
+		fromPlain.load(plain);
+		assertThat(fromPlain.energy).isEqualTo(1000);
+		assertThat(fromPlain.temperature).isEqualTo(295.5);
+	}
+
+	@Test
+	public void testBinaryFormat() throws Exception {
+		CompactData data = new CompactData(Block.class);
+		data.putInt("int", -7);
+		data.putShort("short", (short) 3);
+		data.putDouble("double", Math.PI);
+		data.put("nested", new CompactData());
+
+		Data read = BinaryDataFormat.instance.decode(BinaryDataFormat.instance.encode(data));
+		assertThat(read.className).isEqualTo(Block.class.getName());
+		assertThat(read).isEqualTo(data);
+		assertThat(read.<Object>get("short")).isEqualTo((short) 3);
+	}
+
+	@Test
+	public void testSerialize() {
+		Block block = new Block();
+		block.energy = 5;
+		block.name = "block";
+
+		Data data = Data.serialize(block);
+		assertThat(data).isInstanceOf(CompactData.class);
+		assertThat(data.<String>get("class")).isEqualTo(Block.class.getName());
+
+		Block loaded = (Block) Data.unserialize(data);
+		assertThat(loaded.energy).isEqualTo(5);
+		assertThat(loaded.name).isEqualTo("block");
+	}
+
+	@Test
+	public void testJavaSerialization() throws Exception {
+		CompactData data = new CompactData(Block.class);
+		data.putInt("int", 42);
+		data.putDouble("double", 1.5);
+		data.put("string", "value");
+		data.put("removed", 1);
+		data.remove("removed");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(data);
+		}
+		CompactData read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (CompactData) in.readObject();
+		}
+
+		assertThat(read).isEqualTo(data);
+		assertThat(read.className).isEqualTo(Block.class.getName());
+		assertThat(read.getInt("int")).isEqualTo(42);
+		assertThat(read.containsKey("removed")).isFalse();
+		read.putInt("more", 1);
+		assertThat(read).hasSize(4);
+	}
+}
@@ -0,0 +1,81 @@
+package nova.core.retention;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReplay() throws Exception {
+		File file = new File(folder.getRoot(), "stats.nbin");
+		try (Journal journal = new Journal(file)) {
+			for (int i = 0; i < 100; i++) {
+				journal.put("blocksMined", i);
+			}
+			journal.put("name", "player");
+			journal.put("removed", true);
+			journal.remove("removed");
+			assertThat(journal.<Integer>get("blocksMined")).isEqualTo(99);
+		}
+
+		// Nothing was compacted, so the state comes from the log alone.
+		assertThat(file.exists()).isFalse();
+		try (Journal journal = new Journal(file)) {
+			assertThat(journal.<Integer>get("blocksMined")).isEqualTo(99);
+			assertThat(journal.<String>get("name")).isEqualTo("player");
+			assertThat(journal.getState().containsKey("removed")).isFalse();
+		}
+	}
+
+	@Test
+	public void testCompact() throws Exception {
+		File file = new File(folder.getRoot(), "stats.nbin");
+		File log = new File(folder.getRoot(), "stats.nbin.log");
+		try (Journal journal = new Journal(file, 256)) {
+			for (int i = 0; i < 1000; i++) {
+				journal.put("counter", i);
+			}
+			journal.flush().join();
+			assertThat(file.exists()).isTrue();
+			assertThat(log.length()).isLessThan(256);
+		}
+
+		try (Journal journal = new Journal(file, 256)) {
+			assertThat(journal.<Integer>get("counter")).isEqualTo(999);
+		}
+	}
+
+	@Test
+	public void testTornRecord() throws Exception {
+		File file = new File(folder.getRoot(), "stats.nbin");
+		try (Journal journal = new Journal(file)) {
+			journal.put("a", 1);
+			journal.put("b", 2);
+		}
+
+		// Simulate a crash in the middle of writing a record.
+		try (OutputStream out = new FileOutputStream(file.getPath() + ".log", true)) {
+			out.write(new byte[] { 0, 0, 0, 100, 1, 2, 3 });
+		}
+
+		try (Journal journal = new Journal(file)) {
+			assertThat(journal.<Integer>get("a")).isEqualTo(1);
+			assertThat(journal.<Integer>get("b")).isEqualTo(2);
+			journal.put("c", 3);
+		}
+
+		try (Journal journal = new Journal(file)) {
+			assertThat(journal.getState().keySet()).containsOnly("a", "b", "c");
+		}
+	}
+}
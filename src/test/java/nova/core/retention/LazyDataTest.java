@@ -0,0 +1,105 @@
+package nova.core.retention;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyDataTest {
+
+	public static class Block implements Storable {
+		@Stored
+		int energy;
+		@Stored
+		String name;
+	}
+
+	Data sample() {
+		Data nested = new Data();
+		nested.put("depth", 2);
+		nested.put("list", Arrays.asList(1, 2, 3));
+
+		Data data = new Data(Block.class);
+		data.put("energy", 100);
+		data.put("name", "block");
+		data.put("nested", nested);
+		data.put("enum", Thread.State.RUNNABLE);
+		return data;
+	}
+
+	@Test
+	public void testLazyAccess() throws Exception {
+		Data data = sample();
+		LazyData lazy = (LazyData) BinaryDataFormat.instance.readLazy(BinaryDataFormat.instance.encode(data));
+
+		assertThat(lazy.className).isEqualTo(Block.class.getName());
+		assertThat(lazy.keySet()).containsOnly("energy", "name", "nested", "enum");
+		assertThat(lazy.isEncoded("energy")).isTrue();
+		assertThat(lazy.isEncoded("nested")).isTrue();
+
+		assertThat(lazy.<Integer>get("energy")).isEqualTo(100);
+		assertThat(lazy.isEncoded("energy")).isFalse();
+		assertThat(lazy.isEncoded("name")).isTrue();
+
+		Data nested = lazy.get("nested");
+		assertThat(nested).isInstanceOf(LazyData.class);
+		assertThat(((LazyData) nested).isEncoded("list")).isTrue();
+		assertThat(nested.<Object>get("list")).isEqualTo(Arrays.asList(1, 2, 3));
+
+		assertThat(lazy.<Thread.State>getEnum("enum")).isEqualTo(Thread.State.RUNNABLE);
+		assertThat(lazy).isEqualTo(BinaryDataFormat.instance.decode(BinaryDataFormat.instance.encode(data)));
+	}
+
+	@Test
+	public void testVerbatimWrite() throws Exception {
+		LazyData lazy = (LazyData) BinaryDataFormat.instance.readLazy(BinaryDataFormat.instance.encode(sample()));
+		lazy.put("energy", 5);
+		assertThat(lazy.remove("name")).isEqualTo("block");
+
+		byte[] encoded = BinaryDataFormat.instance.encode(lazy);
+		assertThat(lazy.isEncoded("nested")).isTrue();
+
+		Data expected = sample();
+		expected.put("energy", 5);
+		expected.remove("name");
+		assertThat(BinaryDataFormat.instance.decode(encoded)).isEqualTo(expected);
+
+		Data snapshot = SavePipeline.snapshot(lazy);
+		assertThat(((LazyData) snapshot).isEncoded("nested")).isTrue();
+		assertThat(snapshot).isEqualTo(expected);
+	}
+
+	@Test
+	public void testLoadStorable() throws Exception {
+		Block block = new Block();
+		block.energy = 42;
+		block.name = "lazy";
+
+		Data lazy = BinaryDataFormat.instance.readLazy(BinaryDataFormat.instance.encode(Data.serialize(block)));
+		Block loaded = (Block) Data.unserialize(lazy);
+		assertThat(loaded.energy).isEqualTo(42);
+		assertThat(loaded.name).isEqualTo("lazy");
+	}
+
+	@Test
+	public void testJavaSerialization() throws Exception {
+		Data data = sample();
+		Data lazy = BinaryDataFormat.instance.readLazy(BinaryDataFormat.instance.encode(data));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(lazy);
+		}
+		Data read;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			read = (Data) in.readObject();
+		}
+
+		assertThat(read).isEqualTo(data);
+	}
+}
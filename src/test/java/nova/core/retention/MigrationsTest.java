@@ -0,0 +1,114 @@
+package nova.core.retention;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MigrationsTest {
+
+	@StoredVersion(2)
+	public static class Machine implements Storable {
+		@Stored
+		int energy;
+	}
+
+	@StoredVersion(1)
+	public static class Counter implements Storable {
+		int count;
+
+		@Override
+		public void save(Data data) {
+			data.putInt("count", count);
+		}
+
+		@Override
+		public void load(Data data) {
+			Migrations.migrate(Counter.class, data);
+			count = data.getInt("count");
+		}
+	}
+
+	@BeforeClass
+	public static void register() {
+		// Version 0 called the field "power"
+		Migrations.register(Machine.class, 0, data -> data.put("energy", data.remove("power")));
+		// Version 1 stored energy in tenths
+		Migrations.register(Machine.class, 1, data -> data.putInt("energy", data.getInt("energy") / 10));
+		// Version 0 called the field "value"
+		Migrations.register(Counter.class, 0, data -> data.put("count", data.remove("value")));
+	}
+
+	@Test
+	public void testMigrateOnLoad() {
+		Data old = new Data(Machine.class);
+		old.putRaw("class", Machine.class.getName());
+		old.put("power", 500);
+
+		Machine machine = (Machine) Data.unserialize(old);
+		assertThat(machine.energy).isEqualTo(50);
+		assertThat(old.containsKey("power")).isFalse();
+
+		// Loading the same data again does not migrate it twice.
+		Machine again = new Machine();
+		again.load(old);
+		assertThat(again.energy).isEqualTo(50);
+	}
+
+	@Test
+	public void testVersionSaved() {
+		Machine machine = new Machine();
+		machine.energy = 7;
+		Data data = Data.serialize(machine);
+
+		assertThat(data.getInt(Migrations.versionKey(Machine.class))).isEqualTo(2);
+		Machine loaded = new Machine();
+		loaded.load(data);
+		assertThat(loaded.energy).isEqualTo(7);
+	}
+
+	@Test
+	public void testDirectSaveAndLoad() {
+		Machine machine = new Machine();
+		machine.energy = 70;
+
+		// Wrappers save and load directly, without Data.serialize.
+		for (int i = 0; i < 2; i++) {
+			Data data = new Data();
+			machine.save(data);
+			assertThat(data.getInt(Migrations.versionKey(Machine.class))).isEqualTo(2);
+
+			machine = new Machine();
+			machine.load(data);
+			assertThat(machine.energy).isEqualTo(70);
+		}
+	}
+
+	@Test
+	public void testPartialMigration() {
+		Data data = new Data();
+		data.putInt(Migrations.versionKey(Machine.class), 1);
+		data.putInt("energy", 120);
+
+		Machine machine = new Machine();
+		machine.load(data);
+		assertThat(machine.energy).isEqualTo(12);
+	}
+
+	@Test
+	public void testOverriddenSaveAndLoad() {
+		Counter counter = new Counter();
+		counter.count = 3;
+		Data data = Data.serialize(counter);
+		assertThat(data.getInt(Migrations.versionKey(Counter.class))).isEqualTo(1);
+
+		Counter loaded = (Counter) Data.unserialize(data);
+		assertThat(loaded.count).isEqualTo(3);
+
+		Data old = new Data(Counter.class);
+		old.putRaw("class", Counter.class.getName());
+		old.putInt("value", 5);
+		loaded = (Counter) Data.unserialize(old);
+		assertThat(loaded.count).isEqualTo(5);
+	}
+}
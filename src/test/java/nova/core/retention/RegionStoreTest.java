@@ -0,0 +1,165 @@
+package nova.core.retention;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegionStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	public static class Counter implements Storable {
+		@Stored
+		int value;
+	}
+
+	Data data(String value) {
+		Data data = new Data();
+		data.put("value", value);
+		return data;
+	}
+
+	String repeat(char c, int count) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testReadWrite() throws Exception {
+		try (RegionStore store = new RegionStore(folder.getRoot(), 4)) {
+			for (int i = 0; i < 100; i++) {
+				store.write("chunk" + i, data("value" + i));
+			}
+			for (int i = 0; i < 100; i++) {
+				assertThat(store.read("chunk" + i).get().<String>get("value")).isEqualTo("value" + i);
+			}
+			assertThat(store.read("missing").isPresent()).isFalse();
+			assertThat(store.keys()).hasSize(100);
+			assertThat(folder.getRoot().list((dir, name) -> name.endsWith(".nreg"))).hasSize(4);
+		}
+	}
+
+	@Test
+	public void testOverwrite() throws Exception {
+		try (RegionStore store = new RegionStore(folder.getRoot(), 1)) {
+			store.write("a", data("small"));
+			store.write("b", data("other"));
+			store.write("a", data(repeat('x', 2000)));
+			store.write("a", data("small again"));
+
+			assertThat(store.read("a").get().<String>get("value")).isEqualTo("small again");
+			assertThat(store.read("b").get().<String>get("value")).isEqualTo("other");
+		}
+	}
+
+	@Test
+	public void testRemoveAndCompact() throws Exception {
+		File directory = folder.getRoot();
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			for (int i = 0; i < 10; i++) {
+				store.write("key" + i, data(repeat('x', 1000)));
+			}
+			for (int i = 0; i < 10; i += 2) {
+				assertThat(store.remove("key" + i)).isTrue();
+			}
+			assertThat(store.remove("key0")).isFalse();
+			assertThat(store.contains("key0")).isFalse();
+		}
+
+		File region = new File(directory, "region-0.nreg");
+		long size;
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			size = region.length();
+			store.compact();
+			assertThat(store.read("key9").get().<String>get("value")).isEqualTo(repeat('x', 1000));
+		}
+		assertThat(region.length()).isLessThan(size);
+		assertThat(directory.list((dir, name) -> name.endsWith(".compact"))).isEmpty();
+
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			assertThat(store.keys()).containsOnly("key1", "key3", "key5", "key7", "key9");
+			assertThat(store.read("key9").get().<String>get("value")).isEqualTo(repeat('x', 1000));
+		}
+	}
+
+	@Test
+	public void testCorruptRecords() throws Exception {
+		File directory = folder.getRoot();
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			store.write("a", data("first"));
+			store.write("b", data("second"));
+			store.write("c", data("third"));
+		}
+
+		// Records start at sector 1, each of these fits in one sector.
+		File region = new File(directory, "region-0.nreg");
+		try (RandomAccessFile file = new RandomAccessFile(region, "rw")) {
+			// Damage the data of b, so its checksum fails.
+			file.seek(2 * RegionFile.SECTOR_SIZE + 30);
+			file.write(~file.read());
+			// Damage the sector count of c, so nothing after it can be found.
+			file.seek(3 * RegionFile.SECTOR_SIZE + 4);
+			file.writeInt(-1);
+		}
+
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			assertThat(store.keys()).containsOnly("a");
+			assertThat(store.read("a").get().<String>get("value")).isEqualTo("first");
+			store.write("d", data("fourth"));
+		}
+
+		try (RegionStore store = new RegionStore(directory, 1)) {
+			assertThat(store.keys()).containsOnly("a", "d");
+			assertThat(store.read("d").get().<String>get("value")).isEqualTo("fourth");
+		}
+	}
+
+	@Test
+	public void testRegionCountIsKept() throws Exception {
+		File directory = folder.getRoot();
+		try (RegionStore store = new RegionStore(directory, 8)) {
+			for (int i = 0; i < 20; i++) {
+				store.write("key" + i, data("value" + i));
+			}
+		}
+
+		try (RegionStore store = new RegionStore(directory, 3)) {
+			assertThat(store.keys()).hasSize(20);
+			for (int i = 0; i < 20; i++) {
+				assertThat(store.read("key" + i).get().<String>get("value")).isEqualTo("value" + i);
+			}
+		}
+	}
+
+	@Test
+	public void testReopen() throws Exception {
+		File directory = folder.getRoot();
+		try (RegionStore store = new RegionStore(directory)) {
+			Counter counter = new Counter();
+			counter.value = 42;
+			store.save("counter", counter);
+			store.write("a", data("first"));
+			store.write("a", data(repeat('y', 600)));
+			store.write("b", data("second"));
+		}
+
+		try (RegionStore store = new RegionStore(directory)) {
+			assertThat(store.keys()).containsOnly("counter", "a", "b");
+			assertThat(store.read("a").get().<String>get("value")).isEqualTo(repeat('y', 600));
+			assertThat(store.read("b").get().<String>get("value")).isEqualTo("second");
+			Counter counter = new Counter();
+			assertThat(store.load("counter", counter)).isTrue();
+			assertThat(counter.value).isEqualTo(42);
+			assertThat(store.load("missing", new Counter())).isFalse();
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package nova.core.retention;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SavePipelineTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	Data read(File file) throws Exception {
+		try (InputStream in = new FileInputStream(file)) {
+			return BinaryDataFormat.instance.read(in);
+		}
+	}
+
+	@Test
+	public void testSave() throws Exception {
+		SavePipeline pipeline = new SavePipeline(BinaryDataFormat.instance);
+		File file = new File(folder.getRoot(), "world/data.nbin");
+
+		Data data = new Data();
+		data.put("value", 1);
+		pipeline.save(file, data).join();
+
+		assertThat(read(file).<Integer>get("value")).isEqualTo(1);
+		assertThat(file.getParentFile().list()).containsOnly("data.nbin");
+	}
+
+	@Test
+	public void testLastSaveWins() throws Exception {
+		SavePipeline pipeline = new SavePipeline(BinaryDataFormat.instance);
+		File file = new File(folder.getRoot(), "data.nbin");
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Data data = new Data();
+			data.put("value", i);
+			futures.add(pipeline.save(file, data));
+		}
+		pipeline.flush().join();
+
+		assertThat(futures.stream().allMatch(CompletableFuture::isDone)).isTrue();
+		assertThat(pipeline.pendingCount()).isEqualTo(0);
+		assertThat(read(file).<Integer>get("value")).isEqualTo(99);
+	}
+
+	@Test
+	public void testSnapshot() {
+		List<Integer> list = new ArrayList<>();
+		list.add(1);
+		Data data = new Data();
+		data.put("list", list);
+
+		Data snapshot = SavePipeline.snapshot(data);
+		list.add(2);
+
+		assertThat(snapshot.<List<Integer>>get("list")).containsExactly(1);
+	}
+}
@@ -1,8 +1,12 @@
 package nova.core.retention;
 
+import nova.core.util.transform.vector.Vector3d;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -100,4 +104,41 @@ public class StorableTest {
         assertThat(test.integer).isEqualTo(256);
         assertThat(test.string).isEqualTo("test");
     }
+
+    @Test
+    public void testFinalFieldStorable() {
+        Data data = Data.serialize(new Vector3d(1, 2, 3));
+
+        assertThat(data.get("class").toString()).isEqualTo(Vector3d.class.getName());
+        assertThat((Vector3d) Data.unserialize(data)).isEqualTo(new Vector3d(1, 2, 3));
+    }
+
+    @Test
+    public void testArrayStorable() {
+
+        class TestCase implements Storable {
+            @Stored
+            private int[] blocks = new int[4096];
+            @Stored
+            private double[] levels = new double[0];
+            @Stored
+            private List<String> names = new ArrayList<>();
+        }
+
+        TestCase test = new TestCase();
+        test.blocks[4095] = 7;
+        test.levels = new double[] { 0.5, 1.5 };
+        test.names.add("stone");
+
+        Data data = new Data();
+        test.save(data);
+
+        test = new TestCase();
+        test.load(data);
+
+        assertThat(test.blocks).hasSize(4096);
+        assertThat(test.blocks[4095]).isEqualTo(7);
+        assertThat(test.levels).containsExactly(0.5, 1.5);
+        assertThat(test.names).containsExactly("stone");
+    }
 }
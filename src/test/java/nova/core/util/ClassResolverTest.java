@@ -0,0 +1,114 @@
+package nova.core.util;
+
+import nova.core.util.exception.NovaException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class ClassResolverTest {
+
+	public static class Public {
+		public Public() {
+
+		}
+	}
+
+	private static class Private {
+		private Private() {
+
+		}
+	}
+
+	public static abstract class Abstract {
+
+	}
+
+	public static class NoDefault {
+		public NoDefault(int value) {
+
+		}
+	}
+
+	@Test
+	public void testForName() throws Exception {
+		assertThat(ClassResolver.<Object>forName(Public.class.getName())).isSameAs(Public.class);
+		assertThat(ClassResolver.<Object>forName(Public.class.getName())).isSameAs(Public.class);
+
+		try {
+			ClassResolver.forName("nova.core.util.DoesNotExist");
+			fail("Expected ClassNotFoundException");
+		} catch (ClassNotFoundException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testNewInstance() {
+		Supplier<Public> factory = ClassResolver.factory(Public.class);
+		assertThat(ClassResolver.factory(Public.class)).isSameAs(factory);
+		assertThat(factory.get()).isInstanceOf(Public.class);
+		assertThat(factory.get()).isNotSameAs(factory.get());
+
+		assertThat(ClassResolver.newInstance(Private.class)).isInstanceOf(Private.class);
+		assertThat(ClassResolver.newInstance(ArrayList.class)).isInstanceOf(ArrayList.class);
+	}
+
+	@Test(expected = NovaException.class)
+	public void testAbstract() {
+		ClassResolver.newInstance(Abstract.class);
+	}
+
+	@Test(expected = NovaException.class)
+	public void testNoDefaultConstructor() {
+		ClassResolver.newInstance(NoDefault.class);
+	}
+
+	public static class Arguments {
+		final String made;
+
+		public Arguments() {
+			made = "none";
+		}
+
+		public Arguments(String a) {
+			made = a;
+		}
+
+		public Arguments(String a, Integer b) {
+			made = a + b;
+		}
+
+		public Arguments(String a, String b, String c) {
+			made = a + b + c;
+		}
+
+		public Arguments(Object... args) {
+			made = "varargs" + args.length;
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		Function<Object[], Arguments> constructor = ClassResolver.constructor(Arguments.class);
+		assertThat(ClassResolver.<Arguments>constructor(Arguments.class)).isSameAs(constructor);
+
+		assertThat(constructor.apply(new Object[0]).made).isEqualTo("none");
+		assertThat(constructor.apply(new Object[] { "a" }).made).isEqualTo("a");
+		assertThat(constructor.apply(new Object[] { "a", 1 }).made).isEqualTo("a1");
+		assertThat(constructor.apply(new Object[] { "a", "b", "c" }).made).isEqualTo("abc");
+		assertThat(constructor.apply(new Object[] { new Object[] { 1, 2 } }).made).isEqualTo("varargs2");
+
+		Function<Object[], Private> fallback = ClassResolver.constructor(Private.class);
+		assertThat(fallback.apply(new Object[0])).isInstanceOf(Private.class);
+	}
+
+	@Test(expected = NovaException.class)
+	public void testConstructorMismatch() {
+		ClassResolver.constructor(Arguments.class).apply(new Object[] { 1 });
+	}
+}
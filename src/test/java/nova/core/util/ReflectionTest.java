@@ -4,6 +4,10 @@ import static org.assertj.core.api.Assertions.*;
 import static nova.core.util.ReflectionUtil.*;
 
 import java.lang.reflect.Constructor;
+import java.util.List;
+
+import nova.core.retention.Stored;
+import nova.core.util.exception.NovaException;
 
 import org.junit.Test;
 
@@ -75,4 +79,66 @@ public class ReflectionTest {
 			.isEqualTo(con_DDD);
 		assertThat(newInstanceMatching(constr, Double.valueOf(1), Double.valueOf(1), Double.valueOf(1))).isNotNull();
 	}
+
+	static class Parent {
+		@Stored
+		private int parentValue = 1;
+		private int ignored;
+	}
+
+	static class Child extends Parent {
+		@Stored(key = "renamed")
+		private String childValue = "child";
+		@Stored
+		private final double finalValue = 2;
+	}
+
+	@Test
+	public void testAnnotatedFields() {
+		List<AnnotatedField<Stored>> fields = annotatedFields(Stored.class, Child.class);
+
+		assertThat(annotatedFields(Stored.class, Child.class)).isSameAs(fields);
+		assertThat(fields.stream().map(f -> f.field().getName()).toArray())
+			.containsExactly("childValue", "finalValue", "parentValue");
+		assertThat(fields.get(0).annotation().key()).isEqualTo("renamed");
+		assertThat(getAnnotatedFields(Stored.class, Child.class).keySet())
+			.containsExactly(fields.get(0).field(), fields.get(1).field(), fields.get(2).field());
+
+		Child child = new Child();
+		assertThat(fields.get(0).get(child)).isEqualTo("child");
+		fields.get(0).set(child, "changed");
+		fields.get(2).set(child, 5);
+		assertThat(child.childValue).isEqualTo("changed");
+		assertThat(fields.get(2).get(child)).isEqualTo(5);
+	}
+
+	public static class Made {
+		final String by;
+
+		public Made(double a, double b, int c) {
+			by = "ddi";
+		}
+
+		public Made(float... f) {
+			by = "float" + f.length;
+		}
+
+		public Made(String s) {
+			by = s;
+		}
+	}
+
+	@Test
+	public void testConstructorCache() {
+		for (int i = 0; i < 2; i++) {
+			assertThat(newInstanceMatching(Made.class, 1, 1, 1).by).isEqualTo("ddi");
+			assertThat(newInstanceMatching(Made.class, 1F, 2F).by).isEqualTo("float2");
+			assertThat(newInstanceMatching(Made.class, new float[3]).by).isEqualTo("float3");
+			assertThat(newInstanceMatching(Made.class, "matched").by).isEqualTo("matched");
+			assertThat(newInstance(Made.class, "exact").by).isEqualTo("exact");
+		}
+
+		assertThatThrownBy(() -> newInstance(Made.class, 1, 1, 1)).isInstanceOf(NovaException.class);
+		assertThatThrownBy(() -> newInstanceMatching(Made.class, new Object())).isInstanceOf(NovaException.class);
+	}
 }
@@ -0,0 +1,134 @@
+package nova.core.util;
+
+import nova.core.retention.BinaryDataFormat;
+import nova.core.retention.ChangeTracked;
+import nova.core.retention.Data;
+import nova.core.retention.DataFormat;
+import nova.core.retention.Storable;
+import nova.core.retention.Stored;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetentionManagerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	RetentionManager retention;
+
+	@Before
+	public void setUp() {
+		retention = new RetentionManager() {
+			@Override
+			public void save(String filename, Storable storable) {
+				saveFile(filename, storable);
+			}
+
+			@Override
+			public void load(String filename, Storable storable) {
+				loadFile(filename, storable);
+			}
+
+			@Override
+			public File getSaveDirectory() {
+				return folder.getRoot();
+			}
+		};
+	}
+
+	public static class Counter implements ChangeTracked {
+		@Stored
+		int count;
+		long changes;
+
+		public void increment() {
+			count++;
+			changes++;
+		}
+
+		@Override
+		public long getChangeCount() {
+			return changes;
+		}
+	}
+
+	@Test
+	public void testLoadSave() {
+		Counter counter = new Counter();
+		counter.increment();
+		retention.save("counter", counter);
+
+		Counter loaded = new Counter();
+		retention.load("counter", loaded);
+		assertThat(loaded.count).isEqualTo(1);
+	}
+
+	@Test
+	public void testSkipUnchanged() {
+		Counter counter = new Counter();
+		retention.save("counter", counter);
+		File file = retention.getFile("counter");
+		assertThat(file.delete()).isTrue();
+
+		retention.save("counter", counter);
+		assertThat(file.exists()).isFalse();
+
+		counter.increment();
+		retention.save("counter", counter);
+		assertThat(file.exists()).isTrue();
+	}
+
+	@Test
+	public void testSkipUnchangedAsync() {
+		Counter counter = new Counter();
+		counter.increment();
+		retention.saveAsync("counter", counter).join();
+		assertThat(retention.isUnchanged("counter", counter)).isTrue();
+
+		counter.increment();
+		assertThat(retention.isUnchanged("counter", counter)).isFalse();
+		retention.saveAsync("counter", counter).join();
+
+		Counter loaded = new Counter();
+		retention.load("counter", loaded);
+		assertThat(loaded.count).isEqualTo(2);
+		assertThat(retention.isUnchanged("counter", loaded)).isTrue();
+	}
+
+	@Test
+	public void testSaveAfterFormatChange() {
+		Counter counter = new Counter();
+		counter.increment();
+		retention.save("counter", counter);
+
+		retention.setFormat(new DataFormat() {
+			@Override
+			public String extension() {
+				return "other";
+			}
+
+			@Override
+			public void write(Data data, OutputStream out) throws IOException {
+				BinaryDataFormat.instance.write(data, out);
+			}
+
+			@Override
+			public Data read(InputStream in) throws IOException {
+				return BinaryDataFormat.instance.read(in);
+			}
+		});
+		assertThat(retention.isUnchanged("counter", counter)).isFalse();
+		retention.save("counter", counter);
+		assertThat(retention.getFile("counter").getName()).isEqualTo("counter.other");
+		assertThat(retention.getFile("counter").exists()).isTrue();
+	}
+}
@@ -0,0 +1,57 @@
+package nova.core.util;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StartupTimelineTest {
+
+	@Test
+	public void testRecord() {
+		StartupTimeline timeline = new StartupTimeline();
+		int value = timeline.record("construct", "outer", () -> {
+			timeline.record("inject", "inner", () -> {
+			});
+			return 5;
+		});
+		assertThat(value).isEqualTo(5);
+
+		List<StartupTimeline.Span> spans = timeline.getSpans();
+		assertThat(spans).hasSize(2);
+		StartupTimeline.Span inner = spans.get(0);
+		StartupTimeline.Span outer = spans.get(1);
+		assertThat(inner.name).isEqualTo("inner");
+		assertThat(outer.name).isEqualTo("outer");
+		assertThat(inner.start).isGreaterThanOrEqualTo(outer.start);
+		assertThat(inner.start + inner.duration).isLessThanOrEqualTo(outer.start + outer.duration);
+		assertThat(outer.threadId).isEqualTo(Thread.currentThread().getId());
+		assertThat(timeline.totals("construct")).containsOnlyKeys("outer");
+	}
+
+	@Test
+	public void testRecordFailure() {
+		StartupTimeline timeline = new StartupTimeline();
+		assertThatThrownBy(() -> timeline.record("init", "failing", () -> {
+			throw new IllegalStateException();
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(timeline.getSpans()).hasSize(1);
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		StartupTimeline timeline = new StartupTimeline();
+		timeline.record("init", "mod \"quoted\"", () -> {
+		});
+
+		StringWriter writer = new StringWriter();
+		timeline.write(writer);
+		String trace = writer.toString();
+		assertThat(trace).startsWith("{\"traceEvents\":[");
+		assertThat(trace).contains("\"name\":\"mod \\\"quoted\\\"\"", "\"cat\":\"init\"", "\"ph\":\"X\"", "\"ph\":\"M\"");
+		assertThat(trace.trim()).endsWith("}");
+	}
+}
@@ -0,0 +1,85 @@
+package nova.internal.launch;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class InjectionPlanTest {
+
+	public static class Constructed {
+		final String text;
+		final Integer number;
+
+		public Constructed() {
+			this(null, null);
+		}
+
+		public Constructed(String text, Integer number) {
+			this.text = text;
+			this.number = number;
+		}
+	}
+
+	public static class Failing {
+		public Failing() {
+			throw new IllegalStateException();
+		}
+	}
+
+	static class Parent {
+		String inherited;
+	}
+
+	static class Singleton extends Parent {
+		static String ignoredStatic;
+		String injected;
+		String preset = "preset";
+		Runnable unresolvable;
+		int primitive;
+	}
+
+	@Test
+	public void testConstruct() throws Exception {
+		InjectionPlan plan = InjectionPlan.of(Constructed.class);
+		assertThat(InjectionPlan.of(Constructed.class)).isSameAs(plan);
+
+		List<Class<?>> requested = new ArrayList<>();
+		Object[] parameters = plan.resolveParameters(type -> {
+			requested.add(type);
+			return type == String.class ? "text" : (Object) 5;
+		});
+		assertThat(requested).containsExactly(String.class, Integer.class);
+
+		Constructed constructed = (Constructed) plan.construct(parameters);
+		assertThat(constructed.text).isEqualTo("text");
+		assertThat(constructed.number).isEqualTo(5);
+	}
+
+	@Test
+	public void testConstructFailure() {
+		InjectionPlan plan = InjectionPlan.of(Failing.class);
+		assertThatThrownBy(() -> plan.construct(new Object[0]))
+			.isInstanceOf(InvocationTargetException.class)
+			.hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> InjectionPlan.of(Runnable.class).construct(new Object[0]))
+			.isInstanceOf(InstantiationException.class);
+	}
+
+	@Test
+	public void testInjectFields() {
+		Singleton singleton = new Singleton();
+		InjectionPlan.of(Singleton.class).injectFields(singleton, type -> type == String.class ? Optional.of("injected") : Optional.empty());
+
+		assertThat(singleton.injected).isEqualTo("injected");
+		assertThat(singleton.inherited).isEqualTo("injected");
+		assertThat(singleton.preset).isEqualTo("preset");
+		assertThat(singleton.unresolvable).isNull();
+		assertThat(Singleton.ignoredStatic).isNull();
+	}
+}
@@ -0,0 +1,90 @@
+package nova.internal.launch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static JavaFileObject source(String className, String code) {
+		return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return code;
+			}
+		};
+	}
+
+	@Test
+	public void testProcessor() throws Exception {
+		File output = folder.newFolder();
+		List<JavaFileObject> sources = Arrays.asList(
+			source("example.ExampleMod",
+				"package example;\n" +
+				"@nova.core.loader.NovaMod(id = \"example\", name = \"Example\", version = \"1.0.0\", novaVersion = \"0.1.0\")\n" +
+				"public class ExampleMod implements nova.core.loader.Loadable {\n" +
+				"	public static class Machine {\n" +
+				"		@nova.core.retention.Stored public int energy;\n" +
+				"		@nova.core.network.Sync public int progress;\n" +
+				"	}\n" +
+				"}\n"),
+			source("example.Settings",
+				"package example;\n" +
+				"public class Settings {\n" +
+				"	@nova.core.config.Config public static int range = 5;\n" +
+				"}\n")
+		);
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+			Arrays.asList("-d", output.getPath(), "-classpath", System.getProperty("java.class.path")), null, sources);
+		task.setProcessors(Collections.singletonList(new ModIndexProcessor()));
+		assertThat(task.call()).isTrue();
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toURI().toURL() }, getClass().getClassLoader())) {
+			ModIndex index = ModIndex.read(loader);
+			assertThat(index.getClassNames(ModIndex.MOD)).containsExactly("example.ExampleMod");
+			assertThat(index.getClassNames(ModIndex.STORED)).containsExactly("example.ExampleMod$Machine");
+			assertThat(index.getClassNames(ModIndex.SYNC)).containsExactly("example.ExampleMod$Machine");
+			assertThat(index.getClassNames(ModIndex.CONFIG)).containsExactly("example.Settings");
+			assertThat(index.getClasses(ModIndex.MOD).iterator().next().getName()).isEqualTo("example.ExampleMod");
+			assertThat(index.covers(output.toURI().toURL())).isTrue();
+			assertThat(index.covers(folder.getRoot().toURI().toURL())).isFalse();
+			index.prewarm();
+		}
+	}
+
+	@Test
+	public void testRead() throws Exception {
+		ModIndex index = new ModIndex(getClass().getClassLoader());
+		index.read(new StringReader("# comment\nmod nova.testutils.mod.TestMod\n\nstored java.lang.Object\n"));
+		assertThat(index.isEmpty()).isFalse();
+		assertThat(index.getClassNames(ModIndex.MOD)).containsExactly("nova.testutils.mod.TestMod");
+		assertThat(index.getClassNames(ModIndex.SYNC)).isEmpty();
+		assertThat(index.getClasses(ModIndex.STORED)).containsExactly(Object.class);
+	}
+
+	@Test
+	public void testRoot() throws Exception {
+		assertThat(ModIndex.root(new URL("jar:file:/mods/example.jar!/" + ModIndex.LOCATION))).isEqualTo("file:/mods/example.jar");
+		assertThat(ModIndex.root(new URL("file:/mods/example/" + ModIndex.LOCATION))).isEqualTo("file:/mods/example/");
+	}
+}
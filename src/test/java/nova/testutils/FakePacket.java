@@ -0,0 +1,175 @@
+package nova.testutils;
+
+import nova.core.network.Packet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A packet backed by a growable heap buffer.
+ */
+public class FakePacket implements Packet {
+
+	private ByteBuffer buffer = ByteBuffer.allocate(64);
+	private int readerIndex = 0;
+	private int id = 0;
+
+	@Override
+	public int getID() {
+		return id;
+	}
+
+	@Override
+	public Packet setID(int id) {
+		this.id = id;
+		return this;
+	}
+
+	@Override
+	public int size() {
+		return buffer.position();
+	}
+
+	private ByteBuffer ensure(int bytes) {
+		if (buffer.remaining() < bytes) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+			buffer.flip();
+			grown.put(buffer);
+			buffer = grown;
+		}
+		return buffer;
+	}
+
+	private ByteBuffer reader(int bytes) {
+		if (readerIndex + bytes > buffer.position()) {
+			throw new IndexOutOfBoundsException();
+		}
+		ByteBuffer read = (ByteBuffer) buffer.duplicate().position(readerIndex);
+		readerIndex += bytes;
+		return read;
+	}
+
+	@Override
+	public Packet writeBoolean(boolean value) {
+		ensure(1).put((byte) (value ? 1 : 0));
+		return this;
+	}
+
+	@Override
+	public Packet writeByte(int value) {
+		ensure(1).put((byte) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeShort(int value) {
+		ensure(2).putShort((short) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeInt(int value) {
+		ensure(4).putInt(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeLong(long value) {
+		ensure(8).putLong(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeChar(int value) {
+		ensure(2).putChar((char) value);
+		return this;
+	}
+
+	@Override
+	public Packet writeFloat(float value) {
+		ensure(4).putFloat(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeDouble(double value) {
+		ensure(8).putDouble(value);
+		return this;
+	}
+
+	@Override
+	public Packet writeString(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		ensure(4 + bytes.length).putInt(bytes.length).put(bytes);
+		return this;
+	}
+
+	@Override
+	public Packet writeBytes(byte[] src, int offset, int length) {
+		ensure(length).put(src, offset, length);
+		return this;
+	}
+
+	@Override
+	public void readBytes(byte[] dst, int offset, int length) {
+		reader(length).get(dst, offset, length);
+	}
+
+	@Override
+	public boolean readBoolean() {
+		return reader(1).get() != 0;
+	}
+
+	@Override
+	public byte readByte() {
+		return reader(1).get();
+	}
+
+	@Override
+	public short readUnsignedByte() {
+		return (short) (readByte() & 0xFF);
+	}
+
+	@Override
+	public short readShort() {
+		return reader(2).getShort();
+	}
+
+	@Override
+	public int readInt() {
+		return reader(4).getInt();
+	}
+
+	@Override
+	public long readUnsignedInt() {
+		return readInt() & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long readLong() {
+		return reader(8).getLong();
+	}
+
+	@Override
+	public char readChar() {
+		return reader(2).getChar();
+	}
+
+	@Override
+	public float readFloat() {
+		return reader(4).getFloat();
+	}
+
+	@Override
+	public double readDouble() {
+		return reader(8).getDouble();
+	}
+
+	@Override
+	public String readString() {
+		int length = readInt();
+		byte[] bytes = new byte[length];
+		reader(length).get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,120 @@
+package nova.wrappertests;
+
+import nova.bootstrap.DependencyInjectionEntryPoint;
+import nova.core.game.Game;
+import nova.core.loader.Loadable;
+import nova.core.loader.NovaMod;
+import nova.core.util.exception.NovaException;
+import nova.internal.launch.NovaLauncher;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ModOrderTest extends NovaLauncherTestFactory {
+
+	static final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+
+	@NovaMod(id = "base", name = "Base", version = "1.0.0", novaVersion = "0.1.0")
+	public static class BaseMod implements Loadable {
+		@Override
+		public void preInit() {
+			loaded.add("base");
+		}
+	}
+
+	@NovaMod(id = "addon", name = "Addon", version = "1.0.0", novaVersion = "0.1.0", dependencies = { "base@1.0.x", "missing" })
+	public static class AddonMod implements Loadable {
+		@Override
+		public void preInit() {
+			loaded.add("addon");
+		}
+	}
+
+	@NovaMod(id = "extension", name = "Extension", version = "1.0.0", novaVersion = "0.1.0", dependencies = { "addon" })
+	public static class ExtensionMod implements Loadable {
+		@Override
+		public void preInit() {
+			loaded.add("extension");
+		}
+	}
+
+	@NovaMod(id = "other", name = "Other", version = "1.0.0", novaVersion = "0.1.0")
+	public static class OtherMod implements Loadable {
+		@Override
+		public void preInit() {
+			loaded.add("other");
+		}
+	}
+
+	@NovaMod(id = "cycleA", name = "Cycle A", version = "1.0.0", novaVersion = "0.1.0", dependencies = { "cycleB" })
+	public static class CycleAMod implements Loadable {
+
+	}
+
+	@NovaMod(id = "cycleB", name = "Cycle B", version = "1.0.0", novaVersion = "0.1.0", dependencies = { "cycleA" })
+	public static class CycleBMod implements Loadable {
+
+	}
+
+	@Before
+	public void clear() {
+		loaded.clear();
+	}
+
+	private NovaLauncher launch(int parallelism, Class<?>... mods) {
+		DependencyInjectionEntryPoint diep = new DependencyInjectionEntryPoint();
+		getModules().forEach(diep::install);
+		NovaLauncher launcher = new NovaLauncher(diep, new HashSet<>(Arrays.asList(mods)));
+		Game.inject(diep.init());
+		launcher.setParallelism(parallelism);
+		launcher.load();
+		launcher.preInit();
+		launcher.init();
+		launcher.postInit();
+		return launcher;
+	}
+
+	@Test
+	public void testDependencyToMap() {
+		NovaLauncher launcher = launch(1);
+		assertThat(launcher.dependencyToMap(new String[] { "base@1.0.x", "other" }))
+			.containsEntry("base", "1.0.x")
+			.containsEntry("other", "");
+	}
+
+	@Test
+	public void testOrder() {
+		launch(1, ExtensionMod.class, OtherMod.class, AddonMod.class, BaseMod.class);
+		assertOrder();
+	}
+
+	@Test
+	public void testParallelOrder() {
+		for (int i = 0; i < 10; i++) {
+			loaded.clear();
+			launch(4, ExtensionMod.class, OtherMod.class, AddonMod.class, BaseMod.class);
+			assertOrder();
+		}
+	}
+
+	private void assertOrder() {
+		assertThat(loaded).containsOnly("base", "addon", "extension", "other").hasSize(4);
+		assertThat(loaded.indexOf("base")).isLessThan(loaded.indexOf("addon"));
+		assertThat(loaded.indexOf("addon")).isLessThan(loaded.indexOf("extension"));
+	}
+
+	@Test
+	public void testCycle() {
+		assertThatThrownBy(() -> launch(1, CycleAMod.class, CycleBMod.class, BaseMod.class))
+			.isInstanceOf(NovaException.class)
+			.hasMessageContaining("cyclic");
+	}
+}
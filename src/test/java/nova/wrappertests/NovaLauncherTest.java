@@ -2,13 +2,20 @@ package nova.wrappertests;
 
 import nova.bootstrap.DependencyInjectionEntryPoint;
 import nova.core.game.Game;
+import nova.core.util.exception.NovaException;
 import nova.internal.launch.NovaLauncher;
 import nova.testutils.mod.NoLoadableTestMod;
 import nova.testutils.mod.NonAnnotatedTestMod;
 import nova.testutils.mod.TestMod;
+import nova.wrappertests.depmodules.FakeClientModule;
+import nova.wrappertests.depmodules.FakeGuiModule;
+import nova.wrappertests.depmodules.FakeKeyModule;
+import nova.wrappertests.depmodules.FakeRenderModule;
+import org.junit.After;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class NovaLauncherTest extends NovaLauncherTestFactory {
 
@@ -16,6 +23,20 @@ public class NovaLauncherTest extends NovaLauncherTestFactory {
 		super(TestMod.class, NonAnnotatedTestMod.class, NoLoadableTestMod.class);
 	}
 
+	/**
+	 * Tests that inject a different game, such as a server-only game, must not leak it into other tests.
+	 */
+	@After
+	public void restoreGame() {
+		Game.inject(createGame());
+	}
+
+	private Game createGame() {
+		DependencyInjectionEntryPoint diep = new DependencyInjectionEntryPoint();
+		getModules().forEach(diep::install);
+		return diep.init();
+	}
+
 	@Test
 	public void testLaunching() {
 		doLaunchAssert(createLauncher());
@@ -29,11 +50,8 @@ public class NovaLauncherTest extends NovaLauncherTestFactory {
 
 	@Test
 	public void testResolveGame() {
-		DependencyInjectionEntryPoint diep = new DependencyInjectionEntryPoint();
-
-		getModules().forEach(diep::install);
-
-		Game game = diep.init();
+		Game game = createGame();
+		Game.inject(game);
 
 		assertThat(game).isNotNull();
 
@@ -55,4 +73,21 @@ public class NovaLauncherTest extends NovaLauncherTestFactory {
 		assertThat(game.input()).isNotNull();
 		assertThat(game.natives()).isNotNull();
 	}
+
+	@Test
+	public void testServerOnlyGame() {
+		DependencyInjectionEntryPoint diep = new DependencyInjectionEntryPoint(true);
+
+		getModules().stream()
+			.filter(module -> module != FakeGuiModule.class && module != FakeRenderModule.class && module != FakeKeyModule.class && module != FakeClientModule.class)
+			.forEach(diep::install);
+
+		Game.inject(diep.init());
+
+		assertThat(diep.isServerOnly()).isTrue();
+		assertThat(Game.blocks()).isNotNull();
+		assertThat(Game.items()).isNotNull();
+		assertThatThrownBy(Game::gui).isInstanceOf(NovaException.class).hasMessageContaining("dedicated server");
+		assertThatThrownBy(Game::render).isInstanceOf(NovaException.class).hasMessageContaining("dedicated server");
+	}
 }